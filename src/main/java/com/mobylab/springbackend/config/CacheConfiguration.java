@@ -0,0 +1,49 @@
+package com.mobylab.springbackend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Bounded in-process caches for data that is read on most requests but rarely changes.
+ * Statistics are recorded so the actuator publishes cache.gets/cache.puts/cache.evictions
+ * per cache, from which the hit rate can be derived.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String USERS_CACHE = "users";
+    public static final String ROLES_CACHE = "roles";
+
+    @Value("${cache.users.max-size:10000}")
+    private long usersMaxSize;
+    @Value("${cache.users.ttl:300000}")
+    private long usersTtl;
+    @Value("${cache.roles.max-size:100}")
+    private long rolesMaxSize;
+    @Value("${cache.roles.ttl:3600000}")
+    private long rolesTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(USERS_CACHE, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(Duration.ofMillis(usersTtl))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ROLES_CACHE, Caffeine.newBuilder()
+                .maximumSize(rolesMaxSize)
+                .expireAfterWrite(Duration.ofMillis(rolesTtl))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
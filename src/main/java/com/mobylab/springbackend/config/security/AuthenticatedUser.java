@@ -0,0 +1,33 @@
+package com.mobylab.springbackend.config.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Principal of an authenticated request. The Spring Security username is the email; the id and
+ * display name are carried along so request handlers do not have to load the user again.
+ * The id is null for tokens issued before it was added to the claims.
+ */
+public class AuthenticatedUser extends User {
+
+    private final UUID id;
+    private final String displayName;
+
+    public AuthenticatedUser(UUID id, String email, String displayName, String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.id = id;
+        this.displayName = displayName;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
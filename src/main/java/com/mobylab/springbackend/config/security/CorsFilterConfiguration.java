@@ -13,6 +13,8 @@ public class CorsFilterConfiguration implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:4200")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                // Paging cursors of GET /api/v1/orders.
+                .exposedHeaders("X-Next-Cursor", "Link")
                 .allowCredentials(true);
     }
 }
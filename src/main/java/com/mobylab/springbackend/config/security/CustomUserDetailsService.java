@@ -1,36 +1,55 @@
 package com.mobylab.springbackend.config.security;
 
-import com.mobylab.springbackend.entity.Role;
 import com.mobylab.springbackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private UserAccountCache userAccountCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Optional<com.mobylab.springbackend.entity.User> optionalUser = userRepository.findUserByEmail(email);
-        if (optionalUser.isPresent()) {
-            com.mobylab.springbackend.entity.User user = optionalUser.get();
-            return new User(user.getEmail(), user.getPassword(), mapRolesToAuthorities(user.getRoles()));
+        UserAccountCache.CachedUser user = userAccountCache.find(email);
+        if (user != null) {
+            return new AuthenticatedUser(user.getId(), user.getEmail(), user.getUsername(), user.getPassword(),
+                    mapRolesToAuthorities(user.getRoles()));
         } else
             throw new UsernameNotFoundException("User not found");
     }
-    private Collection<GrantedAuthority> mapRolesToAuthorities(List<Role> roles){
-        return roles.stream().map(role->new SimpleGrantedAuthority(role.getName())).collect(Collectors.toList());
+
+    /**
+     * Called by the authentication provider after a successful login when the stored hash
+     * was produced with a different BCrypt cost than the one currently configured.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userAccountCache.evict(user.getUsername());
+        if (user instanceof AuthenticatedUser authenticatedUser) {
+            return new AuthenticatedUser(authenticatedUser.getId(), user.getUsername(), authenticatedUser.getDisplayName(),
+                    newPassword, user.getAuthorities());
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    private Collection<GrantedAuthority> mapRolesToAuthorities(List<String> roles){
+        return roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
     }
 }
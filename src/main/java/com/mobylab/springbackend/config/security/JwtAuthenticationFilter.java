@@ -1,11 +1,14 @@
 package com.mobylab.springbackend.config.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.flywaydb.core.internal.util.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,16 +23,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtGenerator tokenGenerator;
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
+    @Autowired
+    private SecurityStampService securityStampService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    /**
+     * When enabled the principal is built from the verified token claims instead of
+     * reloading the user and its roles from the database on every request.
+     */
+    @Value("${token.claims-only:false}")
+    private boolean claimsOnly;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String token = getJWTFromRequest(request);
-        if(StringUtils.hasText(token) && tokenGenerator.validateToken(token)) {
-            String username = tokenGenerator.getUsernameFromJWT(token);
+        if(StringUtils.hasText(token)) {
+            Claims claims = tokenGenerator.verifyToken(token);
+            if (tokenRevocationService.isRevoked(claims.getId())) {
+                throw new AuthenticationCredentialsNotFoundException("JWT was revoked");
+            }
+            UserDetails userDetails = claimsOnly
+                    ? getUserDetailsFromClaims(claims)
+                    : customUserDetailsService.loadUserByUsername(claims.getSubject());
 
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null,
                     userDetails.getAuthorities());
             authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -38,6 +57,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails getUserDetailsFromClaims(Claims claims) {
+        String username = claims.getSubject();
+        if (!securityStampService.isCurrent(username, claims.get(JwtGenerator.STAMP_CLAIM, String.class))) {
+            throw new AuthenticationCredentialsNotFoundException("JWT was revoked by a change to the user account");
+        }
+        return new AuthenticatedUser(tokenGenerator.getUserIdFromClaims(claims), username,
+                claims.get(JwtGenerator.NAME_CLAIM, String.class), "", tokenGenerator.getAuthoritiesFromClaims(claims));
+    }
+
     private String getJWTFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if(StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
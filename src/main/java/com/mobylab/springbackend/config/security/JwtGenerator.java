@@ -1,26 +1,113 @@
 package com.mobylab.springbackend.config.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.impl.TextCodec;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtGenerator {
 
+    public static final String ROLES_CLAIM = "roles";
+    public static final String STAMP_CLAIM = "stamp";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String NAME_CLAIM = "name";
+
     @Value("${token.secret}")
     private String JWT_SECRET;
     @Value("${token.ttl}")
     private long JWT_EXPIRY;
+    @Value("${token.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+    /**
+     * Keeps accepting HS512 tokens without a kid, signed with {@code token.secret}, so tokens
+     * issued before the switch to asymmetric keys stay valid until they expire. Only for that
+     * one access-token TTL after upgrading: anyone who knows the secret can mint such tokens.
+     */
+    @Value("${token.signing.accept-legacy-hs512:false}")
+    private boolean acceptLegacyHs512;
+
+    @Autowired
+    private SecurityStampService securityStampService;
+    @Autowired
+    private JwtKeyStore jwtKeyStore;
 
+    private Key legacySigningKey;
+    private JwtParser jwtParser;
+    /**
+     * Claims of tokens whose signature was already checked, keyed by the SHA-256 of the
+     * token so raw tokens are never kept in memory. Entries never outlive the token itself.
+     * Disabled when {@code token.verified-cache-size} is 0.
+     */
+    private Cache<ByteBuffer, Claims> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        // Same lenient base64 decoding jjwt applies when handed the secret as a string,
+        // so tokens issued before the key was pre-built remain valid.
+        legacySigningKey = new SecretKeySpec(TextCodec.BASE64.decode(JWT_SECRET), SignatureAlgorithm.HS512.getJcaName());
+        jwtParser = Jwts.parser().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            // jjwt 0.9 declares this with the raw type, so JwsHeader<?> would not override it.
+            @Override
+            @SuppressWarnings("rawtypes")
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return resolveVerificationKey(header);
+            }
+        });
+        if (verifiedCacheSize <= 0) {
+            return;
+        }
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+                        long remaining = claims.getExpiration() == null ? JWT_EXPIRY
+                                : claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(remaining, JWT_EXPIRY)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();
@@ -28,33 +115,103 @@ public class JwtGenerator {
         List<String> roles = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
+        String stamp = securityStampService.getStamp(username)
+                .map(Object::toString)
+                .orElseThrow(() -> new AuthenticationCredentialsNotFoundException("User not found"));
+
+        JwtKeyStore.LoadedKey key = jwtKeyStore.getSigningKey();
 
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + JWT_EXPIRY);
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.getKid())
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
-                .claim("roles", roles)
+                .claim(ROLES_CLAIM, roles)
+                .claim(STAMP_CLAIM, stamp);
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null) {
+            builder.claim(USER_ID_CLAIM, user.getId().toString());
+            if (user.getDisplayName() != null) {
+                builder.claim(NAME_CLAIM, user.getDisplayName());
+            }
+        }
+        return builder
                 .setIssuedAt(new Date())
                 .setIssuer("http://localhost:8090")
                 .setExpiration(expireDate)
-                .signWith(SignatureAlgorithm.HS512, JWT_SECRET)
+                .signWith(key.getAlgorithm(), key.getPrivateKey())
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(JWT_SECRET)
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+    /**
+     * Parses and verifies the token once and returns its claims. Tokens seen before are
+     * answered from the verified-claims cache without repeating the signature check.
+     *
+     * @throws AuthenticationCredentialsNotFoundException if the token is expired or incorrect
+     */
+    public Claims verifyToken(String token) {
+        if (verifiedTokens == null) {
+            return parseAndVerify(token);
+        }
+        ByteBuffer tokenHash = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(tokenHash);
+        if (claims != null && !isExpired(claims)) {
+            return claims;
+        }
+        claims = parseAndVerify(token);
+        verifiedTokens.put(tokenHash, claims);
+        return claims;
     }
 
-    public boolean validateToken(String token) {
+    private Key resolveVerificationKey(JwsHeader<?> header) {
+        Key key;
+        if (header.getKeyId() == null) {
+            key = acceptLegacyHs512 && SignatureAlgorithm.HS512.getValue().equals(header.getAlgorithm())
+                    ? legacySigningKey : null;
+        } else {
+            key = jwtKeyStore.getVerificationKey(header.getKeyId(), header.getAlgorithm());
+        }
+        if (key == null) {
+            throw new AuthenticationCredentialsNotFoundException("JWT was signed with an unknown key");
+        }
+        return key;
+    }
+
+    private Claims parseAndVerify(String token) {
         try {
-            Jwts.parser().setSigningKey(JWT_SECRET).parseClaimsJws(token);
-            return true;
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (Exception ex) {
             throw new AuthenticationCredentialsNotFoundException("JWT was expired or incorrect");
         }
     }
+
+    public Collection<GrantedAuthority> getAuthoritiesFromClaims(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (roles == null) {
+            return Collections.emptyList();
+        }
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the user id carried by the token, or null for tokens issued without one.
+     */
+    public UUID getUserIdFromClaims(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        return userId == null ? null : UUID.fromString(userId);
+    }
+
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().getTime() <= System.currentTimeMillis();
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
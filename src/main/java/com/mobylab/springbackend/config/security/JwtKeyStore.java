@@ -0,0 +1,298 @@
+package com.mobylab.springbackend.config.security;
+
+import com.mobylab.springbackend.entity.SigningKey;
+import com.mobylab.springbackend.repository.SigningKeyRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asymmetric JWT signing keys identified by {@code kid}. Keys live in the {@code signing_key}
+ * table so every instance signs with, and can verify, the same key set. A new key is created
+ * once the newest one is older than {@code token.signing.rotation-interval}. It is published in
+ * the JWKS right away but only signs once it is {@code token.signing.jwks-max-age} old, so
+ * verifiers holding a cached JWKS have it before the first token it signs reaches them. The key it
+ * replaces keeps signing until then and is retired {@code token.ttl} plus one
+ * {@code token.signing.refresh-interval} (and a minute of clock skew) after that, since other
+ * instances keep signing with it until their next refresh; until then it stays published for
+ * verification.
+ *
+ * The table also holds the private keys, Base64 PKCS#8 and not encrypted, so database access
+ * and backups of {@code signing_key} must be treated like any other signing secret.
+ */
+@Component
+public class JwtKeyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyStore.class);
+    // Bounds the reloads triggered by tokens carrying an unknown kid.
+    private static final long MIN_REFRESH_INTERVAL = 5000;
+    private static final long CLOCK_SKEW = 60000;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final SignatureAlgorithm algorithm;
+    private final long rotationInterval;
+    private final long tokenTtl;
+    private final long refreshInterval;
+    private final long publishDelay;
+
+    private volatile KeyRing keyRing = new KeyRing(null, Collections.emptyMap());
+    private volatile long lastRefresh;
+    // Request threads may refresh on an unknown kid; a lock keeps a virtual thread waiting on the
+    // database from pinning its carrier, which synchronized would on Java 21.
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public JwtKeyStore(SigningKeyRepository signingKeyRepository,
+                       @Value("${token.signing.algorithm:RS256}") String algorithm,
+                       @Value("${token.signing.rotation-interval:86400000}") long rotationInterval,
+                       @Value("${token.ttl}") long tokenTtl,
+                       @Value("${token.signing.refresh-interval:60000}") long refreshInterval,
+                       @Value("${token.signing.jwks-max-age:300000}") long publishDelay) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.algorithm = SignatureAlgorithm.forName(algorithm);
+        if (this.algorithm != SignatureAlgorithm.RS256 && this.algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalArgumentException("Unsupported token signing algorithm " + algorithm + ", expected RS256 or ES256");
+        }
+        this.rotationInterval = rotationInterval;
+        this.tokenTtl = tokenTtl;
+        this.refreshInterval = refreshInterval;
+        this.publishDelay = publishDelay;
+    }
+
+    @PostConstruct
+    public void init() {
+        refreshKeys();
+    }
+
+    /**
+     * Reloads the key set so keys rotated by other instances are picked up, and rotates
+     * the signing key when it is due.
+     */
+    @Scheduled(fixedDelayString = "${token.signing.refresh-interval:60000}",
+            initialDelayString = "${token.signing.refresh-interval:60000}")
+    public void refreshKeys() {
+        refreshLock.lock();
+        try {
+            lastRefresh = System.currentTimeMillis();
+            LocalDateTime now = LocalDateTime.now();
+            signingKeyRepository.deleteRetired(now);
+            List<SigningKey> keys = signingKeyRepository.findByRetireAtAfterOrderByCreatedAtDesc(now);
+
+            Optional<SigningKey> newest = keys.stream()
+                    .filter(key -> key.getAlgorithm().equals(algorithm.getValue()))
+                    .findFirst();
+            boolean rotationDue = newest
+                    .map(key -> key.getCreatedAt().plusNanos(rotationInterval * 1_000_000).isBefore(now))
+                    .orElse(true);
+            if (rotationDue) {
+                SigningKey created = signingKeyRepository.save(generateKey(now));
+                // The replaced key signs until the new one is published long enough.
+                LocalDateTime lastSigning = now.plusNanos(publishDelay * 1_000_000);
+                newest.ifPresent(replaced -> signingKeyRepository.extendRetireAt(replaced.getKid(), afterLastUse(lastSigning)));
+                logger.info("Rotated JWT signing key, new kid {}", created.getKid());
+                keys = new ArrayList<>(keys);
+                keys.add(0, created);
+            }
+
+            LocalDateTime publishedBefore = now.minusNanos(publishDelay * 1_000_000);
+            Map<String, LoadedKey> loaded = new LinkedHashMap<>();
+            LoadedKey current = null;
+            LoadedKey newestLoaded = null;
+            for (SigningKey key : keys) {
+                LoadedKey loadedKey = load(key);
+                loaded.put(key.getKid(), loadedKey);
+                if (loadedKey.algorithm != algorithm) {
+                    continue;
+                }
+                if (newestLoaded == null) {
+                    newestLoaded = loadedKey;
+                }
+                if (current == null && !key.getCreatedAt().isAfter(publishedBefore)) {
+                    current = loadedKey;
+                }
+            }
+            if (current == null) {
+                // First key of this algorithm: nothing else can sign, and no token needs it yet.
+                current = newestLoaded;
+            }
+            keyRing = new KeyRing(current, loaded);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public LoadedKey getSigningKey() {
+        return keyRing.current;
+    }
+
+    /**
+     * @return the public key for the given kid, or null if it is unknown or was not issued for that algorithm.
+     */
+    public PublicKey getVerificationKey(String kid, String algorithmName) {
+        LoadedKey key = keyRing.keys.get(kid);
+        if (key == null && System.currentTimeMillis() - lastRefresh > MIN_REFRESH_INTERVAL) {
+            // A key rotated on another instance may not have reached us yet.
+            refreshKeys();
+            key = keyRing.keys.get(kid);
+        }
+        if (key == null || !key.algorithm.getValue().equals(algorithmName)) {
+            return null;
+        }
+        return key.publicKey;
+    }
+
+    /**
+     * @return the published key set in JWK Set format (RFC 7517).
+     */
+    public Map<String, Object> getJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (LoadedKey key : keyRing.keys.values()) {
+            jwks.add(toJwk(key));
+        }
+        return Map.of("keys", jwks);
+    }
+
+    private SigningKey generateKey(LocalDateTime now) {
+        try {
+            KeyPairGenerator generator;
+            if (algorithm == SignatureAlgorithm.ES256) {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            } else {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+            }
+            KeyPair keyPair = generator.generateKeyPair();
+            return new SigningKey()
+                    .setKid(UUID.randomUUID().toString())
+                    .setAlgorithm(algorithm.getValue())
+                    .setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                    .setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()))
+                    .setCreatedAt(now)
+                    // Rotation itself may run up to one refresh interval late, and the key keeps
+                    // signing until its successor is published.
+                    .setRetireAt(afterLastUse(now.plusNanos((rotationInterval + refreshInterval + publishDelay) * 1_000_000)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate " + algorithm + " signing key", e);
+        }
+    }
+
+    /**
+     * @return when a key that stops being used for signing at {@code lastSigning} (at the latest
+     * one refresh later on other instances) has no unexpired tokens left.
+     */
+    private LocalDateTime afterLastUse(LocalDateTime lastSigning) {
+        return lastSigning.plusNanos((refreshInterval + tokenTtl + CLOCK_SKEW) * 1_000_000);
+    }
+
+    private LoadedKey load(SigningKey key) {
+        SignatureAlgorithm keyAlgorithm = SignatureAlgorithm.forName(key.getAlgorithm());
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm.isEllipticCurve() ? "EC" : "RSA");
+            PublicKey publicKey = keyFactory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            PrivateKey privateKey = keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(Base64.getDecoder().decode(key.getPrivateKey())));
+            return new LoadedKey(key.getKid(), keyAlgorithm, publicKey, privateKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not load signing key " + key.getKid(), e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(LoadedKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", key.kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", key.algorithm.getValue());
+        if (key.publicKey instanceof RSAPublicKey rsaKey) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsaKey.getModulus(), 0));
+            jwk.put("e", base64Url(rsaKey.getPublicExponent(), 0));
+        } else if (key.publicKey instanceof ECPublicKey ecKey) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(ecKey.getW().getAffineX(), 32));
+            jwk.put("y", base64Url(ecKey.getW().getAffineY(), 32));
+        }
+        return jwk;
+    }
+
+    /**
+     * Unsigned big-endian encoding, left-padded to {@code length} bytes when length is positive.
+     */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (length > bytes.length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public static final class LoadedKey {
+        private final String kid;
+        private final SignatureAlgorithm algorithm;
+        private final PublicKey publicKey;
+        private final PrivateKey privateKey;
+
+        private LoadedKey(String kid, SignatureAlgorithm algorithm, PublicKey publicKey, PrivateKey privateKey) {
+            this.kid = kid;
+            this.algorithm = algorithm;
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public SignatureAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+    }
+
+    private static final class KeyRing {
+        private final LoadedKey current;
+        private final Map<String, LoadedKey> keys;
+
+        private KeyRing(LoadedKey current, Map<String, LoadedKey> keys) {
+            this.current = current;
+            this.keys = keys;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.mobylab.springbackend.config.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -24,6 +26,16 @@ public class SecurityConfiguration {
 
     @Value("${vars.security.enable}")
     private boolean securityEnabled;
+    @Value("${vars.security.password-hashing.strength:10}")
+    private int bcryptStrength;
+    @Value("${vars.security.password-hashing.threads:0}")
+    private int hashingThreads;
+    @Value("${vars.security.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+    @Value("${vars.security.password-hashing.bulk-threads:0}")
+    private int hashingBulkThreads;
+    @Value("${vars.security.password-hashing.retry-after-seconds:1}")
+    private long hashingRetryAfterSeconds;
 
     private JwtAuthEntryPoint authEntryPoint;
 
@@ -34,9 +46,13 @@ public class SecurityConfiguration {
     public SecurityFilterChain authServerSecurityFilterChain (HttpSecurity http) throws Exception{
         http.csrf(AbstractHttpConfigurer::disable);
         if (securityEnabled) {
+           // Streaming responses finish on an async dispatch, which the request was already authorized for.
            http.authorizeHttpRequests(auth -> auth
-                   .requestMatchers("/api/v1/auth/login", "/api/v1/auth/register",
-                           "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                   .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                   .requestMatchers("/api/v1/auth/login", "/api/v1/auth/register", "/api/v1/auth/refresh",
+                           "/.well-known/jwks.json",
+                           "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/actuator/health").permitAll()
+                   .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                    .anyRequest().authenticated())
                    .exceptionHandling((exception)-> exception.authenticationEntryPoint(authEntryPoint))
                    .sessionManagement((session) -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -53,9 +69,14 @@ public class SecurityConfiguration {
         return  authenticationConfiguration.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt at the configured cost, run on a bounded pool. Stored hashes with a different
+     * cost are rehashed on the next successful login (see CustomUserDetailsService#updatePassword).
+     */
     @Bean
-    PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(MeterRegistry meterRegistry){
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), hashingThreads,
+                hashingQueueCapacity, hashingBulkThreads, hashingRetryAfterSeconds, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,86 @@
+package com.mobylab.springbackend.config.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.mobylab.springbackend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps the current security stamp of recently seen users in memory so that
+ * claims-only JWT authentication can reject tokens issued before a role change
+ * or account removal without querying the database on every request.
+ * Entries expire after {@code token.stamp-cache-ttl} so stamps rotated by another
+ * instance are picked up within that window.
+ */
+@Service
+public class SecurityStampService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityStampService.class);
+
+    private final UserRepository userRepository;
+    private final UserAccountCache userAccountCache;
+    private final LoadingCache<String, Optional<UUID>> stamps;
+
+    public SecurityStampService(UserRepository userRepository,
+                                UserAccountCache userAccountCache,
+                                MeterRegistry meterRegistry,
+                                @Value("${token.stamp-cache-ttl:30000}") long stampCacheTtl,
+                                @Value("${token.stamp-cache-size:10000}") long stampCacheSize) {
+        this.userRepository = userRepository;
+        this.userAccountCache = userAccountCache;
+        this.stamps = Caffeine.newBuilder()
+                .maximumSize(stampCacheSize)
+                .expireAfterWrite(Duration.ofMillis(stampCacheTtl))
+                .recordStats()
+                .build(userRepository::findSecurityStampByEmail);
+        CaffeineCacheMetrics.monitor(meterRegistry, stamps, "securityStamps");
+    }
+
+    public Optional<UUID> getStamp(String email) {
+        return stamps.get(email);
+    }
+
+    /**
+     * @return true if the user still exists and the stamp carried by the token matches the current one.
+     */
+    public boolean isCurrent(String email, String tokenStamp) {
+        if (email == null || tokenStamp == null) {
+            return false;
+        }
+        return getStamp(email)
+                .map(stamp -> stamp.toString().equals(tokenStamp))
+                .orElse(false);
+    }
+
+    /**
+     * Invalidates every token issued so far for the given user. Must be called whenever
+     * the user's roles change or the account is deleted.
+     */
+    @Transactional
+    public UUID rotateStamp(String email) {
+        userAccountCache.evict(email);
+        UUID stamp = UUID.randomUUID();
+        if (userRepository.updateSecurityStamp(email, stamp) == 0) {
+            stamps.put(email, Optional.empty());
+            return null;
+        }
+        stamps.put(email, Optional.of(stamp));
+        logger.info("Rotated security stamp for user {}", email);
+        return stamp;
+    }
+
+    public void evict(String email) {
+        stamps.invalidate(email);
+        userAccountCache.evict(email);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mobylab.springbackend.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mobylab.springbackend.entity.RevokedToken;
+import com.mobylab.springbackend.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist of revoked JWT ids. Revocations are stored in the {@code revoked_token} table and
+ * mirrored into an in-memory Bloom filter, so the check for a token that was never revoked
+ * (almost every request) is answered without touching the database. Only filter hits go to
+ * the table, and their answers are cached.
+ * The filter is rebuilt from the table every {@code token.revocation.rebuild-interval}, which
+ * prunes expired ids and picks up revocations made on other instances.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final double falsePositiveRate;
+    private final Cache<UUID, Boolean> confirmed;
+    // Revocations made on this instance, re-added to every rebuilt filter until they expire
+    // so a revocation committed while a rebuild is running is never lost.
+    private final Map<UUID, LocalDateTime> localRevocations = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${token.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${token.revocation.lookup-cache-size:10000}") long lookupCacheSize) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(lookupCacheSize)
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        UUID id;
+        try {
+            id = UUID.fromString(jti);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (!filter.mightContain(id)) {
+            return false;
+        }
+        return confirmed.get(id, revokedTokenRepository::existsById);
+    }
+
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null) {
+            return;
+        }
+        UUID id = UUID.fromString(jti);
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken().setJti(id).setExpiresAt(expiry));
+        localRevocations.put(id, expiry);
+        filter.put(id);
+        confirmed.put(id, true);
+    }
+
+    @Scheduled(fixedDelayString = "${token.revocation.rebuild-interval:30000}",
+            initialDelayString = "${token.revocation.rebuild-interval:30000}")
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        localRevocations.values().removeIf(expiry -> !expiry.isAfter(now));
+
+        List<UUID> active = revokedTokenRepository.findActiveJtis(now);
+        BloomFilter rebuilt = BloomFilter.create(Math.max(1024, 2 * active.size()), falsePositiveRate);
+        active.forEach(rebuilt::put);
+
+        filter = rebuilt;
+        // After the swap, so revocations that went into the old filter while this one was built are kept.
+        localRevocations.keySet().forEach(rebuilt::put);
+        confirmed.invalidateAll();
+        logger.debug("Rebuilt token revocation filter with {} entries", active.size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.mobylab.springbackend.config.security;
+
+import com.mobylab.springbackend.config.CacheConfiguration;
+import com.mobylab.springbackend.entity.Role;
+import com.mobylab.springbackend.entity.User;
+import com.mobylab.springbackend.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Caches an immutable copy of the account data needed to authenticate a user. The cached
+ * value is never handed to Spring Security directly, because the authentication manager
+ * erases credentials on the UserDetails it returns.
+ */
+@Component
+public class UserAccountCache {
+
+    private final UserRepository userRepository;
+
+    public UserAccountCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Cacheable(cacheNames = CacheConfiguration.USERS_CACHE, key = "T(com.mobylab.springbackend.entity.User).normalizeEmail(#email)", unless = "#result == null")
+    public CachedUser find(String email) {
+        return userRepository.findUserByEmail(email)
+                .map(CachedUser::new)
+                .orElse(null);
+    }
+
+    @CacheEvict(cacheNames = CacheConfiguration.USERS_CACHE, key = "T(com.mobylab.springbackend.entity.User).normalizeEmail(#email)")
+    public void evict(String email) {
+    }
+
+    public static final class CachedUser {
+        private final UUID id;
+        private final String email;
+        private final String username;
+        private final String password;
+        private final List<String> roles;
+
+        private CachedUser(User user) {
+            this.id = user.getId();
+            this.email = user.getEmail();
+            this.username = user.getUsername();
+            this.password = user.getPassword();
+            this.roles = user.getRoles().stream().map(Role::getName).toList();
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public List<String> getRoles() {
+            return roles;
+        }
+    }
+}
@@ -3,17 +3,20 @@ package com.mobylab.springbackend.controller;
 import com.mobylab.springbackend.service.AuthService;
 import com.mobylab.springbackend.service.dto.LoginDto;
 import com.mobylab.springbackend.service.dto.LoginResponseDto;
+import com.mobylab.springbackend.service.dto.RefreshTokenDto;
 import com.mobylab.springbackend.service.dto.RegisterDto;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
@@ -25,9 +28,6 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
-    @Autowired
-    private LoginResponseDto loginResponseDto;
-
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     @RequestMapping(path ="/register", method = RequestMethod.POST)
@@ -41,9 +41,29 @@ public class AuthController {
     @RequestMapping(path ="/login", method = RequestMethod.POST)
     public ResponseEntity<?> login(@RequestBody LoginDto loginDto) {
         logger.info("Request to login for user {}", loginDto.getEmail());
-        String token = authService.login(loginDto);
+        LoginResponseDto loginResponseDto = authService.login(loginDto);
         logger.info("Successfully logged in user {}", loginDto.getEmail());
-        return new ResponseEntity<>(loginResponseDto.setToken(token), HttpStatus.OK);
+        return new ResponseEntity<>(loginResponseDto, HttpStatus.OK);
+    }
+
+    @RequestMapping(path ="/refresh", method = RequestMethod.POST)
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenDto refreshTokenDto) {
+        logger.info("Request to refresh access token");
+        LoginResponseDto loginResponseDto = authService.refresh(refreshTokenDto.getRefreshToken());
+        logger.info("Successfully refreshed access token");
+        return new ResponseEntity<>(loginResponseDto, HttpStatus.OK);
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @RequestMapping(path ="/logout", method = RequestMethod.POST)
+    public ResponseEntity<?> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                    @RequestBody(required = false) RefreshTokenDto refreshTokenDto) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        logger.info("Request to logout user {}", email);
+        authService.logout(authorization.substring("Bearer ".length()),
+                refreshTokenDto == null ? null : refreshTokenDto.getRefreshToken());
+        logger.info("Successfully logged out user {}", email);
+        return ResponseEntity.noContent().build();
     }
 
     @SecurityRequirement(name = "Bearer Authentication")
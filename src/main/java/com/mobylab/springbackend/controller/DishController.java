@@ -1,10 +1,15 @@
 package com.mobylab.springbackend.controller;
 
+import com.mobylab.springbackend.service.MenuSnapshot;
+import com.mobylab.springbackend.service.TrendingDishService;
 import com.mobylab.springbackend.service.dto.DishDto;
 import com.mobylab.springbackend.service.DishService;
+import com.mobylab.springbackend.service.dto.TrendingDishDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -16,16 +21,39 @@ import java.util.List;
 public class DishController {
 
     private final DishService dishService;
+    private final TrendingDishService trendingDishService;
+    private final MenuSnapshot menuSnapshot;
     private static final Logger logger = LoggerFactory.getLogger(DishController.class);
-    public DishController(DishService dishService) {
+    public DishController(DishService dishService, TrendingDishService trendingDishService, MenuSnapshot menuSnapshot) {
         this.dishService = dishService;
+        this.trendingDishService = trendingDishService;
+        this.menuSnapshot = menuSnapshot;
     }
 
+    /**
+     * The menu, written from the JSON pre-serialized in the current snapshot. The response carries
+     * the snapshot's strong ETag; a request whose {@code If-None-Match} still matches it gets a 304
+     * with no body.
+     */
     @GetMapping
-    public ResponseEntity<List<DishDto>> getAllDishes() {
-        List<DishDto> dishList = dishService.getAllDishes();
+    public ResponseEntity<byte[]> getAllDishes() {
+        MenuSnapshot.Menu menu = menuSnapshot.current();
         logger.info("Request to return dishes");
-        return ResponseEntity.ok(dishList);
+        return ResponseEntity.ok()
+                .eTag(menu.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(menu.getJson());
+    }
+
+    /**
+     * The dishes ordered most in the last {@code window} minutes (at most 60), served from memory
+     * for the front-of-house screen.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingDishDto>> getTrending(@RequestParam(defaultValue = "15") int window,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingDishService.getTrending(window, limit));
     }
 
     @PostMapping
@@ -0,0 +1,38 @@
+package com.mobylab.springbackend.controller;
+
+import com.mobylab.springbackend.config.security.JwtKeyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the public JWT signing keys so other services can verify our tokens locally
+ * instead of calling /api/v1/auth/token.
+ */
+@RestController
+public class JwksController {
+
+    private final JwtKeyStore jwtKeyStore;
+    private final long maxAge;
+
+    /**
+     * @param maxAge how long clients may cache the key set; new keys only sign once they have been published this long.
+     */
+    public JwksController(JwtKeyStore jwtKeyStore,
+                          @Value("${token.signing.jwks-max-age:300000}") long maxAge) {
+        this.jwtKeyStore = jwtKeyStore;
+        this.maxAge = maxAge;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAge, TimeUnit.MILLISECONDS).cachePublic())
+                .body(jwtKeyStore.getJwks());
+    }
+}
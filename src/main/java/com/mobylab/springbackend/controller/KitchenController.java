@@ -0,0 +1,74 @@
+package com.mobylab.springbackend.controller;
+
+import com.mobylab.springbackend.entity.KitchenStation;
+import com.mobylab.springbackend.service.KitchenService;
+import com.mobylab.springbackend.service.dto.KitchenTicketDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Kitchen station screens. Stations are GRILL, COLD and DESSERT. ADMIN only.
+ */
+@RestController
+@RequestMapping("/api/v1/kitchen")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class KitchenController implements SecuredRestController {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenController.class);
+
+    private final KitchenService kitchenService;
+
+    public KitchenController(KitchenService kitchenService) {
+        this.kitchenService = kitchenService;
+    }
+
+    /**
+     * Open tickets per station, pending and claimed.
+     */
+    @GetMapping("/backlog")
+    public ResponseEntity<Map<KitchenStation, Integer>> getBacklog() {
+        return ResponseEntity.ok(kitchenService.getBacklog());
+    }
+
+    /**
+     * The station's queue: pending tickets in the order they will be claimed, then the claimed ones.
+     */
+    @GetMapping("/stations/{station}/tickets")
+    public ResponseEntity<List<KitchenTicketDto>> getTickets(@PathVariable String station,
+                                                             @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(kitchenService.getTickets(station, limit));
+    }
+
+    /**
+     * Claims the next {@code max} tickets of the station for the calling user.
+     */
+    @PostMapping("/stations/{station}/claim")
+    public ResponseEntity<List<KitchenTicketDto>> claim(@PathVariable String station,
+                                                        @RequestParam(defaultValue = "1") int max) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        logger.info("User '{}' claiming up to {} {} tickets", authentication.getName(), max, station);
+        return ResponseEntity.ok(kitchenService.claim(station, authentication.getName(), max));
+    }
+
+    @PostMapping("/stations/{station}/tickets/{orderId}/complete")
+    public ResponseEntity<Void> complete(@PathVariable String station, @PathVariable UUID orderId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        logger.info("User '{}' completing {} ticket of order {}", authentication.getName(), station, orderId);
+        kitchenService.complete(station, orderId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,12 +1,24 @@
 package com.mobylab.springbackend.controller;
 
+import com.mobylab.springbackend.config.security.AuthenticatedUser;
+import com.mobylab.springbackend.entity.User;
 import com.mobylab.springbackend.exception.BadRequestException;
+import com.mobylab.springbackend.service.OrderEventHub;
+import com.mobylab.springbackend.service.OrderExportService;
+import com.mobylab.springbackend.service.OrderIdempotencyService;
 import com.mobylab.springbackend.service.OrderService;
+import com.mobylab.springbackend.service.dto.OrderBatchResultDto;
 import com.mobylab.springbackend.service.dto.OrderDto;
+import com.mobylab.springbackend.service.dto.OrderPageDto;
+import com.mobylab.springbackend.service.dto.OrderStatusChangeDto;
+import com.mobylab.springbackend.service.dto.OrderStatusChangeResultDto;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,9 +26,14 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -24,27 +41,78 @@ public class OrderController implements SecuredRestController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderEventHub orderEventHub;
+    private final OrderIdempotencyService orderIdempotencyService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderExportService orderExportService, OrderEventHub orderEventHub,
+                           OrderIdempotencyService orderIdempotencyService) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.orderEventHub = orderEventHub;
+        this.orderIdempotencyService = orderIdempotencyService;
     }
 
+    /**
+     * Places an order for the current user. Clients that may retry should send an
+     * {@code Idempotency-Key} header: a retry with the same key returns the original order
+     * (marked with {@code Idempotent-Replayed: true}) instead of placing another one.
+     */
     @PostMapping
-    public ResponseEntity<OrderDto> placeOrder(@RequestBody OrderDto orderDto) {
+    public ResponseEntity<OrderDto> placeOrder(@RequestBody OrderDto orderDto,
+                                               @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String currentUserEmail = authentication.getName();
 
         orderDto.setClientEmail(currentUserEmail);
+        // Only staff may move an order ahead in the kitchen queue.
+        if (authentication.getAuthorities().stream().noneMatch(auth -> auth.getAuthority().equals("ADMIN"))) {
+            orderDto.setPriority(null);
+        }
         logger.info("User '{}' requesting to place order", currentUserEmail);
 
+        Supplier<OrderDto> placement = () -> authentication.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null
+                ? orderService.placeOrder(user, orderDto.getDishIds(), orderDto.getPriority())
+                : orderService.placeOrder(orderDto);
+        if (idempotencyKey == null) {
+            OrderDto createdOrder = placement.get();
+            logger.info("Successfully placed order with ID {} for user '{}'", createdOrder.getId(), currentUserEmail);
+            return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        }
 
-        OrderDto createdOrder = orderService.placeOrder(orderDto);
-        logger.info("Successfully placed order with ID {} for user '{}'", createdOrder.getId(), currentUserEmail);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        OrderIdempotencyService.Result result = orderIdempotencyService.placeOnce(User.normalizeEmail(currentUserEmail),
+                idempotencyKey, orderDto.getDishIds(), orderDto.getPriority(), placement);
+        if (result.replayed()) {
+            logger.info("Replayed order {} for user '{}' from idempotency key", result.order().getId(), currentUserEmail);
+            return ResponseEntity.status(HttpStatus.CREATED).header(IDEMPOTENT_REPLAYED, "true").body(result.order());
+        }
+        logger.info("Successfully placed order with ID {} for user '{}'", result.order().getId(), currentUserEmail);
+        return new ResponseEntity<>(result.order(), HttpStatus.CREATED);
 
     }
 
+    /**
+     * Places many orders in one request, e.g. from kiosks or delivery aggregators.
+     * Admins may set the client email and kitchen priority of each order; everyone else orders for themselves.
+     *
+     * @return one result per submitted order, in request order; rejected items do not affect the others.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderBatchResultDto>> placeOrders(@RequestBody List<OrderDto> orders) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ADMIN"));
+        logger.info("User '{}' submitting a batch of {} orders", authentication.getName(), orders == null ? 0 : orders.size());
+
+        List<OrderBatchResultDto> results = orderService.placeOrders(orders, authentication.getName(), isAdmin);
+        return ResponseEntity.ok(results);
+    }
+
     /**
      * Gets a specific order by its ID.
      * Security check: Allows ADMIN or the user who placed the order.
@@ -65,14 +133,82 @@ public class OrderController implements SecuredRestController {
 
     }
 
+    /**
+     * Searches all orders, newest first, one page at a time. ADMIN only.
+     * Every filter is optional; {@code from} is inclusive and {@code to} exclusive.
+     * The body is the same array of orders this endpoint always returned. When another page
+     * follows, its cursor is sent in the {@code X-Next-Cursor} header and its URL in a
+     * {@code Link} header with {@code rel="next"}.
+     *
+     * @param cursor the {@code X-Next-Cursor} of the previous page, absent for the first page.
+     */
     @GetMapping
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<List<OrderDto>> getAllOrders() {
+    public ResponseEntity<List<OrderDto>> searchOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String userEmail,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        logger.info("Admin user '{}' requesting all orders", authentication.getName());
-        List<OrderDto> orders = orderService.getAllOrders();
-        logger.info("Returning {} orders", orders.size());
-        return ResponseEntity.ok(orders);
+        logger.info("Admin user '{}' searching orders", authentication.getName());
+        OrderPageDto page = orderService.searchOrders(status, from, to, userEmail, cursor, limit);
+        logger.info("Returning {} orders", page.getItems().size());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString();
+            response.header(NEXT_CURSOR, page.getNextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Streams every order, oldest first, as NDJSON ({@code format=ndjson}, the default) or CSV
+     * ({@code format=csv}, dish ids separated by ';'). ADMIN only. Optional filters match the search.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        boolean csv;
+        if (format.equalsIgnoreCase("csv")) {
+            csv = true;
+        } else if (format.equalsIgnoreCase("ndjson")) {
+            csv = false;
+        } else {
+            throw new BadRequestException("Format must be csv or ndjson.");
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        logger.info("Admin user '{}' exporting orders as {}", authentication.getName(), format);
+
+        StreamingResponseBody body = output -> orderExportService.exportOrders(csv, status, from, to, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? OrderExportService.CSV : OrderExportService.NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Server-Sent Events stream of new orders and status changes, pushed once they are committed.
+     * Admins receive every order, everyone else only their own. Events are named
+     * {@code order-placed} or {@code order-status-changed} and carry the order id as event id.
+     * A client that falls too far behind is disconnected and should reload its orders before
+     * subscribing again.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToOrderEvents() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ADMIN"));
+        logger.info("User '{}' subscribing to {} order events", authentication.getName(), isAdmin ? "all" : "their");
+        return orderEventHub.subscribe(isAdmin ? null : authentication.getName());
     }
 
     @GetMapping("/my-orders")
@@ -90,7 +226,7 @@ public class OrderController implements SecuredRestController {
     /**
      * Updates the status of an order. ADMIN only.
      * @param id The order ID.
-     * @param status The new status string (consider using an Enum or specific DTO).
+     * @param status The new status, one of {@link com.mobylab.springbackend.entity.OrderStatus}.
      * @return The updated OrderDto.
      */
     @PutMapping("/{id}/status")
@@ -108,4 +244,19 @@ public class OrderController implements SecuredRestController {
         logger.info("Successfully updated status for order {}", id);
         return ResponseEntity.ok(updatedOrder);
     }
+
+    /**
+     * Moves many orders to a new status in one call, e.g. when a kitchen screen bumps its tickets. ADMIN only.
+     * Orders that another request moved first are listed under {@code conflicts} with their current status.
+     */
+    @PostMapping("/status")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<OrderStatusChangeResultDto> changeOrderStatus(@RequestBody OrderStatusChangeDto change) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        logger.info("Admin user '{}' moving {} orders to '{}'", authentication.getName(),
+                change.getOrderIds() == null ? 0 : change.getOrderIds().size(), change.getTo());
+
+        OrderStatusChangeResultDto result = orderService.changeStatus(change.getOrderIds(), change.getFrom(), change.getTo());
+        return ResponseEntity.ok(result);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.mobylab.springbackend.controller;
+
+import com.mobylab.springbackend.service.SalesReportService;
+import com.mobylab.springbackend.service.dto.DishSalesDto;
+import com.mobylab.springbackend.service.dto.SalesPeriodDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sales reporting. Dates are ISO days, both bounds inclusive; the last 30 days by default. ADMIN only.
+ */
+@RestController
+@RequestMapping("/api/v1/reports/sales")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class ReportController implements SecuredRestController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
+
+    private final SalesReportService salesReportService;
+
+    public ReportController(SalesReportService salesReportService) {
+        this.salesReportService = salesReportService;
+    }
+
+    /**
+     * The {@code limit} dishes found in the most orders, cancelled orders excluded.
+     */
+    @GetMapping("/top-dishes")
+    public ResponseEntity<List<DishSalesDto>> getTopDishes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(salesReportService.getTopDishes(from, to, limit));
+    }
+
+    /**
+     * Items sold and revenue per day or per week; periods without sales are omitted.
+     */
+    @GetMapping("/revenue")
+    public ResponseEntity<List<SalesPeriodDto>> getRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        return ResponseEntity.ok(salesReportService.getRevenue(from, to, granularity));
+    }
+
+    /**
+     * Recomputes the rollup behind these reports from the order history, for the given days or everything.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("Rebuilding sales rollup from {} to {}", from, to);
+        return ResponseEntity.ok(Map.of("rows", salesReportService.rebuild(from, to)));
+    }
+}
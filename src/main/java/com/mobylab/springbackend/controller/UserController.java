@@ -0,0 +1,52 @@
+package com.mobylab.springbackend.controller;
+
+import com.mobylab.springbackend.exception.BadRequestException;
+import com.mobylab.springbackend.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/users")
+public class UserController implements SecuredRestController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserController.class);
+
+    @Autowired
+    private UserImportService userImportService;
+
+    /**
+     * Bulk import from a CSV (header with email, password and optional username and roles columns,
+     * roles separated by ';') or NDJSON upload. The response is an NDJSON stream of per-row errors
+     * and progress lines, ending with a summary.
+     */
+    @RequestMapping(path = "/import", method = RequestMethod.POST,
+            consumes = {UserImportService.CSV, UserImportService.NDJSON},
+            produces = UserImportService.NDJSON)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                             HttpServletRequest request) throws IOException {
+        if (!UserImportService.isSupported(contentType)) {
+            throw new BadRequestException("Upload must be text/csv or application/x-ndjson");
+        }
+        logger.info("Request to import users from {}", contentType);
+        UserImportService.ImportSource source = userImportService.open(request.getInputStream(), contentType);
+        StreamingResponseBody body = output -> userImportService.importUsers(source, output);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(UserImportService.NDJSON))
+                .body(body);
+    }
+}
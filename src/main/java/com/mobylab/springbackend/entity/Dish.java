@@ -16,6 +16,9 @@ public class Dish {
     private String description;
     private Double price;
 
+    @Enumerated(EnumType.STRING)
+    private KitchenStation station = KitchenStation.DEFAULT;
+
     @ManyToMany(mappedBy = "dishes")
     private List<Order> orders;
 
@@ -35,6 +38,10 @@ public class Dish {
         return price;
     }
 
+    public KitchenStation getStation() {
+        return station;
+    }
+
     public List<Order> getOrders() {
         return orders;
     }
@@ -55,6 +62,10 @@ public class Dish {
         this.price = price;
     }
 
+    public void setStation(KitchenStation station) {
+        this.station = station;
+    }
+
     public void setOrders(List<Order> orders) {
         this.orders = orders;
     }
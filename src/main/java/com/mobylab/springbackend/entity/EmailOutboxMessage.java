@@ -0,0 +1,138 @@
+package com.mobylab.springbackend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "email_outbox", schema = "project")
+public class EmailOutboxMessage {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    private UUID id;
+    @Column(name = "recipient")
+    private String recipient;
+    @Column(name = "subject")
+    private String subject;
+    @Column(name = "body")
+    private String body;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private Status status;
+    @Column(name = "attempts")
+    private int attempts;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "last_error")
+    private String lastError;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public EmailOutboxMessage setId(UUID id) {
+        this.id = id;
+        return this;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public EmailOutboxMessage setRecipient(String recipient) {
+        this.recipient = recipient;
+        return this;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public EmailOutboxMessage setSubject(String subject) {
+        this.subject = subject;
+        return this;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public EmailOutboxMessage setBody(String body) {
+        this.body = body;
+        return this;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public EmailOutboxMessage setStatus(Status status) {
+        this.status = status;
+        return this;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public EmailOutboxMessage setAttempts(int attempts) {
+        this.attempts = attempts;
+        return this;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public EmailOutboxMessage setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+        return this;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public EmailOutboxMessage setLastError(String lastError) {
+        this.lastError = lastError;
+        return this;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public EmailOutboxMessage setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+        return this;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public EmailOutboxMessage setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+        return this;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mobylab.springbackend.entity;
+
+import java.util.Locale;
+
+/**
+ * Kitchen station that prepares a dish. Stored by name in {@code dish.station}.
+ */
+public enum KitchenStation {
+    GRILL,
+    COLD,
+    DESSERT;
+
+    public static final KitchenStation DEFAULT = GRILL;
+
+    /**
+     * Case-insensitive lookup; null if {@code name} is not a station.
+     */
+    public static KitchenStation parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -13,8 +13,11 @@ public class Order {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    // Partition key and part of the primary key, so it never changes after insert.
+    @Column(updatable = false)
     private LocalDateTime orderDate;
     private String status;
+    private int priority;
 
     @ManyToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id")
@@ -38,6 +41,10 @@ public class Order {
         return status;
     }
 
+    public int getPriority() {
+        return priority;
+    }
+
     public User getClient() {
         return client;
     }
@@ -58,6 +65,10 @@ public class Order {
         this.status = status;
     }
 
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
     public void setClient(User client) {
         this.client = client;
     }
@@ -0,0 +1,59 @@
+package com.mobylab.springbackend.entity;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Lifecycle of an order. Stored by name in {@code order.status}.
+ */
+public enum OrderStatus {
+    PLACED,
+    PREPARING,
+    READY,
+    DELIVERED,
+    CANCELLED;
+
+    /**
+     * @return the statuses an order may move to from this one; empty for final statuses.
+     */
+    public Set<OrderStatus> next() {
+        return switch (this) {
+            case PLACED -> EnumSet.of(PREPARING, CANCELLED);
+            case PREPARING -> EnumSet.of(READY, CANCELLED);
+            case READY -> EnumSet.of(DELIVERED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canMoveTo(OrderStatus target) {
+        return next().contains(target);
+    }
+
+    /**
+     * @return every status an order may be in to move to {@code target}.
+     */
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : values()) {
+            if (status.canMoveTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Case-insensitive lookup; null if {@code name} is not a status.
+     */
+    public static OrderStatus parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
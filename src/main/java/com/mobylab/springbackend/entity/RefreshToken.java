@@ -0,0 +1,75 @@
+package com.mobylab.springbackend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "refresh_token", schema = "project")
+public class RefreshToken {
+
+    @Id
+    @Column(name = "token_hash")
+    private String tokenHash;
+    @Column(name = "family_id")
+    private UUID familyId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "id")
+    private User user;
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    @Column(name = "used")
+    private boolean used;
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public RefreshToken setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+        return this;
+    }
+
+    public UUID getFamilyId() {
+        return familyId;
+    }
+
+    public RefreshToken setFamilyId(UUID familyId) {
+        this.familyId = familyId;
+        return this;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public RefreshToken setUser(User user) {
+        this.user = user;
+        return this;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public RefreshToken setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+        return this;
+    }
+
+    public boolean isUsed() {
+        return used;
+    }
+
+    public RefreshToken setUsed(boolean used) {
+        this.used = used;
+        return this;
+    }
+}
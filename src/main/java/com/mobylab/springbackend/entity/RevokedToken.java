@@ -0,0 +1,38 @@
+package com.mobylab.springbackend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "revoked_token", schema = "project")
+public class RevokedToken {
+
+    @Id
+    @Column(name = "jti")
+    private UUID jti;
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    public UUID getJti() {
+        return jti;
+    }
+
+    public RevokedToken setJti(UUID jti) {
+        this.jti = jti;
+        return this;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public RevokedToken setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+        return this;
+    }
+}
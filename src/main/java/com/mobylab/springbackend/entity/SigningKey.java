@@ -0,0 +1,81 @@
+package com.mobylab.springbackend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "signing_key", schema = "project")
+public class SigningKey {
+
+    @Id
+    @Column(name = "kid")
+    private String kid;
+    @Column(name = "algorithm")
+    private String algorithm;
+    @Column(name = "public_key")
+    private String publicKey;
+    @Column(name = "private_key")
+    private String privateKey;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "retire_at")
+    private LocalDateTime retireAt;
+
+    public String getKid() {
+        return kid;
+    }
+
+    public SigningKey setKid(String kid) {
+        this.kid = kid;
+        return this;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public SigningKey setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+        return this;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public SigningKey setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+        return this;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public SigningKey setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+        return this;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public SigningKey setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+        return this;
+    }
+
+    public LocalDateTime getRetireAt() {
+        return retireAt;
+    }
+
+    public SigningKey setRetireAt(LocalDateTime retireAt) {
+        this.retireAt = retireAt;
+        return this;
+    }
+}
@@ -13,6 +13,7 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
@@ -27,8 +28,13 @@ public class User {
     private String username;
     @Column(name = "email")
     private String email;
+    // Generated by the database from email, see normalizeEmail.
+    @Column(name = "email_normalized", insertable = false, updatable = false)
+    private String emailNormalized;
     @Column(name = "password")
     private String password;
+    @Column(name = "security_stamp")
+    private UUID securityStamp = UUID.randomUUID();
 
     @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.MERGE)
     @JoinTable(name = "user_role", schema = "project", joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
@@ -62,6 +68,10 @@ public class User {
         return this;
     }
 
+    public String getEmailNormalized() {
+        return emailNormalized;
+    }
+
     public String getPassword() {
         return password;
     }
@@ -71,6 +81,15 @@ public class User {
         return this;
     }
 
+    public UUID getSecurityStamp() {
+        return securityStamp;
+    }
+
+    public User setSecurityStamp(UUID securityStamp) {
+        this.securityStamp = securityStamp;
+        return this;
+    }
+
     public List<Role> getRoles() {
         return roles;
     }
@@ -79,4 +98,24 @@ public class User {
         this.roles = roles;
         return this;
     }
+
+    /**
+     * Java side of the {@code email_normalized} column: trimmed and lower-cased. Only spaces are
+     * trimmed, like {@code btrim}; {@link String#trim()} would also drop tabs and other control
+     * characters and map addresses the database keeps apart to the same key.
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        int start = 0;
+        int end = email.length();
+        while (start < end && email.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && email.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return email.substring(start, end).toLowerCase(Locale.ROOT);
+    }
 }
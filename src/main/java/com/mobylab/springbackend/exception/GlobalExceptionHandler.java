@@ -5,9 +5,12 @@ import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -21,6 +24,8 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private static final int NO_CONNECTION_RETRY_AFTER_SECONDS = 1;
+
     @ExceptionHandler({BadRequestException.class})
     public ResponseEntity<ErrorObject> handleBadRequest(BadRequestException ex, WebRequest request) {
         logger.warn("Handling BadRequestException: {}", ex.getMessage());
@@ -43,6 +48,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorObject, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler({ConflictException.class})
+    public ResponseEntity<ErrorObject> handleConflict(ConflictException ex, WebRequest request) {
+        logger.warn("Handling ConflictException: {}", ex.getMessage());
+        ErrorObject errorObject = new ErrorObject();
+        errorObject
+                .setStatusCode(HttpStatus.CONFLICT.value())
+                .setMessage(ex.getMessage())
+                .setTimestamp(LocalDateTime.now());
+        return new ResponseEntity<>(errorObject, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler({ DataIntegrityViolationException.class })
     public ResponseEntity<ErrorObject> handleDataIntegrityViolation(DataIntegrityViolationException ex, WebRequest request) {
         logger.error("Handling DataIntegrityViolationException: {}", ex.getMessage(), ex);
@@ -69,6 +85,36 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorObject, HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler({TooManyRequestsException.class})
+    public ResponseEntity<ErrorObject> handleTooManyRequests(TooManyRequestsException ex, WebRequest request) {
+        logger.warn("Handling TooManyRequestsException: {}", ex.getMessage());
+        ErrorObject errorObject = new ErrorObject();
+        errorObject
+                .setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+                .setMessage(ex.getMessage())
+                .setTimestamp(LocalDateTime.now());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorObject);
+    }
+
+    /**
+     * The connection pool stayed exhausted for the whole connection timeout. With virtual threads
+     * nothing else bounds how many requests queue for a connection, so shed them instead of
+     * reporting an internal error.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ErrorObject> handleNoConnection(RuntimeException ex, WebRequest request) {
+        logger.warn("Handling {}: {}", ex.getClass().getSimpleName(), ex.getMessage());
+        ErrorObject errorObject = new ErrorObject();
+        errorObject
+                .setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .setMessage("The service is busy, please retry shortly")
+                .setTimestamp(LocalDateTime.now());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(NO_CONNECTION_RETRY_AFTER_SECONDS))
+                .body(errorObject);
+    }
 
     @ExceptionHandler({InternalServerErrorException.class})
     public ResponseEntity<ErrorObject> handleInternalServerError(InternalServerErrorException ex, WebRequest request) {
@@ -86,7 +132,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorObject> handleGenericRuntimeException(RuntimeException ex, WebRequest request) {
         if (ex instanceof BadRequestException || ex instanceof EntityNotFoundException ||
                 ex instanceof DataIntegrityViolationException || ex instanceof AccessDeniedException ||
-                ex instanceof InternalServerErrorException) {
+                ex instanceof InternalServerErrorException || ex instanceof TooManyRequestsException) {
             logger.error("Generic handler caught specific exception unexpectedly: {}", ex.getClass().getName(), ex);
         } else {
             logger.error("Handling Generic RuntimeException: {}", ex.getMessage(), ex);
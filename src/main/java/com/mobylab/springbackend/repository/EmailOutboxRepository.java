@@ -0,0 +1,42 @@
+package com.mobylab.springbackend.repository;
+
+import com.mobylab.springbackend.entity.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, UUID> {
+
+    /**
+     * Locks up to {@code limit} due messages. Rows already locked by another dispatcher are
+     * skipped rather than waited for, so several instances can drain the outbox side by side.
+     */
+    @Query(value = "SELECT * FROM project.email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now"
+            + " ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutboxMessage> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Extends the lease of a message only while it still belongs to the claim that left it at
+     * {@code attempts}; claiming it again increments that.
+     */
+    @Modifying
+    @Query("update EmailOutboxMessage m set m.nextAttemptAt = :until where m.id = :id and m.attempts = :attempts"
+            + " and m.status = com.mobylab.springbackend.entity.EmailOutboxMessage$Status.PENDING")
+    int renewLease(@Param("id") UUID id, @Param("attempts") int attempts, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("update EmailOutboxMessage m set m.status = com.mobylab.springbackend.entity.EmailOutboxMessage$Status.SENT,"
+            + " m.sentAt = :now, m.lastError = null where m.id in :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from EmailOutboxMessage m where m.status = com.mobylab.springbackend.entity.EmailOutboxMessage$Status.SENT"
+            + " and m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
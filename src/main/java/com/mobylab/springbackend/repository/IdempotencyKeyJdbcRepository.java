@@ -0,0 +1,54 @@
+package com.mobylab.springbackend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Durable store of the Idempotency-Key values used for order placement, scoped per client.
+ */
+@Repository
+public class IdempotencyKeyJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserves the key for the current transaction. If another transaction holds the same key
+     * this blocks until it commits or rolls back, so two instances never both place the order.
+     *
+     * @return false if the key was already used.
+     */
+    public boolean claim(String owner, String key, String requestHash, LocalDateTime createdAt) {
+        return jdbcTemplate.update(
+                "INSERT INTO project.order_idempotency_key (owner, idempotency_key, request_hash, created_at) "
+                        + "VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING",
+                owner, key, requestHash, createdAt) == 1;
+    }
+
+    public void complete(String owner, String key, UUID orderId, String response) {
+        jdbcTemplate.update(
+                "UPDATE project.order_idempotency_key SET order_id = ?, response = ? WHERE owner = ? AND idempotency_key = ?",
+                orderId, response, owner, key);
+    }
+
+    public Optional<StoredResponse> find(String owner, String key) {
+        return jdbcTemplate.query(
+                "SELECT request_hash, response FROM project.order_idempotency_key WHERE owner = ? AND idempotency_key = ?",
+                (resultSet, rowNum) -> new StoredResponse(resultSet.getString("request_hash"), resultSet.getString("response")),
+                owner, key).stream().findFirst();
+    }
+
+    public int deleteCreatedBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM project.order_idempotency_key WHERE created_at < ?", before);
+    }
+
+    public record StoredResponse(String requestHash, String response) {
+    }
+}
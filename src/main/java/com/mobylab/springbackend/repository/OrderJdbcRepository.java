@@ -0,0 +1,177 @@
+package com.mobylab.springbackend.repository;
+
+import com.mobylab.springbackend.service.dto.OrderDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Order reads and writes that bypass the persistence context where the JPA mapping would cost
+ * extra round trips.
+ */
+@Repository
+public class OrderJdbcRepository {
+
+    // One statement, one round trip: the order row and all of its dish links.
+    private static final String INSERT_ORDER_WITH_DISHES =
+            "WITH o AS (INSERT INTO project.\"order\" (id, order_date, status, priority, user_id) VALUES (?, ?, ?, ?, ?) RETURNING id) "
+                    + "INSERT INTO project.order_dish (order_id, dish_id) SELECT o.id, d FROM o, unnest(?::uuid[]) AS d";
+
+    // Client email and dish ids come back with each order row, so a list is a single query
+    // instead of one per client and one per dish collection.
+    private static final String SELECT_ORDER_DTOS =
+            "SELECT o.id, o.order_date, o.status, o.priority, u.email, "
+                    + "ARRAY(SELECT od.dish_id FROM project.order_dish od WHERE od.order_id = o.id) AS dish_ids "
+                    + "FROM project.\"order\" o LEFT JOIN project.users u ON u.id = o.user_id ";
+
+    private static final RowMapper<OrderDto> ORDER_DTO_MAPPER = (resultSet, rowNum) -> {
+        OrderDto dto = new OrderDto();
+        dto.setId(resultSet.getObject("id", UUID.class));
+        dto.setOrderDate(resultSet.getTimestamp("order_date").toLocalDateTime());
+        dto.setStatus(resultSet.getString("status"));
+        dto.setPriority(resultSet.getInt("priority"));
+        dto.setClientEmail(resultSet.getString("email"));
+        dto.setDishIds(Arrays.asList((UUID[]) resultSet.getArray("dish_ids").getArray()));
+        return dto;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public OrderJdbcRepository(JdbcTemplate jdbcTemplate,
+                               @Value("${orders.export.fetch-size:1000}") int exportFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(exportFetchSize);
+    }
+
+    public void insertWithDishes(UUID orderId, UUID userId, LocalDateTime orderDate, String status, int priority, List<UUID> dishIds) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_ORDER_WITH_DISHES);
+            Array dishArray = connection.createArrayOf("uuid", dishIds.toArray());
+            statement.setObject(1, orderId);
+            statement.setTimestamp(2, Timestamp.valueOf(orderDate));
+            statement.setString(3, status);
+            statement.setInt(4, priority);
+            statement.setObject(5, userId);
+            statement.setArray(6, dishArray);
+            return statement;
+        });
+    }
+
+    /**
+     * Moves every listed order that is currently in one of {@code from} to {@code to} in a single
+     * statement. The status check in the WHERE clause makes each row change atomic, so of two
+     * concurrent transitions on the same order only the first one matches.
+     *
+     * @return the updated ids, in no particular order, each with its client's email.
+     */
+    public Map<UUID, String> updateStatus(Collection<UUID> ids, Collection<String> from, String to) {
+        Map<UUID, String> updated = new LinkedHashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE project.\"order\" o SET status = ? FROM project.users u"
+                            + " WHERE u.id = o.user_id AND o.id = ANY(?) AND o.status = ANY(?) RETURNING o.id, u.email");
+            statement.setString(1, to);
+            statement.setArray(2, connection.createArrayOf("uuid", ids.toArray()));
+            statement.setArray(3, connection.createArrayOf("varchar", from.toArray()));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> updated.put(resultSet.getObject(1, UUID.class), resultSet.getString(2)));
+        return updated;
+    }
+
+    public Map<UUID, String> findStatuses(Collection<UUID> ids) {
+        Map<UUID, String> statuses = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT id, status FROM project.\"order\" WHERE id = ANY(?)");
+            statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> statuses.put(resultSet.getObject(1, UUID.class), resultSet.getString(2)));
+        return statuses;
+    }
+
+    /**
+     * Newest orders first matching every non-null filter, starting strictly after the
+     * {@code (afterDate, afterId)} position when given. The row comparison lets Postgres seek
+     * straight into the (order_date, id) indexes, so a page costs the same at any depth.
+     */
+    public List<OrderDto> search(String status, LocalDateTime from, LocalDateTime to, String clientEmail,
+                                 LocalDateTime afterDate, UUID afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_ORDER_DTOS);
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, status, from, to, clientEmail);
+        if (afterDate != null && afterId != null) {
+            sql.append(" AND (o.order_date, o.id) < (?, ?)");
+            args.add(Timestamp.valueOf(afterDate));
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY o.order_date DESC, o.id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ORDER_DTO_MAPPER, args.toArray());
+    }
+
+    public List<OrderDto> findDtosByStatus(Collection<String> statuses) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ORDER_DTOS + "WHERE o.status = ANY(?) ORDER BY o.order_date");
+            statement.setArray(1, connection.createArrayOf("varchar", statuses.toArray()));
+            return statement;
+        }, ORDER_DTO_MAPPER);
+    }
+
+    public List<OrderDto> findDtosByClientEmail(String email) {
+        return jdbcTemplate.query(SELECT_ORDER_DTOS + "WHERE u.email_normalized = lower(btrim(?)) ORDER BY o.order_date",
+                ORDER_DTO_MAPPER, email);
+    }
+
+    /**
+     * Hands every matching order, oldest first, to {@code handler} while the rows are read.
+     * Rows are fetched {@code orders.export.fetch-size} at a time, which Postgres only does inside
+     * a transaction; outside one the driver reads the whole result into memory first.
+     */
+    public void streamDtos(String status, LocalDateTime from, LocalDateTime to, Consumer<OrderDto> handler) {
+        StringBuilder sql = new StringBuilder(SELECT_ORDER_DTOS);
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, status, from, to, null);
+        sql.append(" ORDER BY o.order_date, o.id");
+        streamingJdbcTemplate.query(sql.toString(),
+                (RowCallbackHandler) resultSet -> handler.accept(ORDER_DTO_MAPPER.mapRow(resultSet, 0)), args.toArray());
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> args,
+                                      String status, LocalDateTime from, LocalDateTime to, String clientEmail) {
+        sql.append("WHERE true");
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            args.add(status);
+        }
+        if (from != null) {
+            sql.append(" AND o.order_date >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.order_date < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (clientEmail != null) {
+            // A scalar subquery rather than a join keeps the (user_id, order_date, id) index usable for the ordering.
+            sql.append(" AND o.user_id = (SELECT id FROM project.users WHERE email_normalized = lower(btrim(?)))");
+            args.add(clientEmail);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.mobylab.springbackend.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * DDL for the monthly partitions of {@code "order"}, named {@code order_pYYYY_MM}.
+ * Every statement must run inside a transaction holding {@link #tryLock()}, or on the
+ * repository handed out by {@link #withSessionLock(Consumer)}.
+ */
+@Repository
+public class OrderPartitionJdbcRepository {
+
+    private static final String PREFIX = "order_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderPartitionJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes a transaction-scoped advisory lock so only one instance changes partitions at a time.
+     *
+     * @return false if another instance holds it.
+     */
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('project.order_partitions'))", Boolean.class));
+    }
+
+    /**
+     * Runs {@code work} with a repository bound to one connection in auto-commit mode, holding
+     * the same lock as {@link #tryLock()} at session level. For work whose statements must each
+     * commit on their own, like {@link #detach(YearMonth)}; must not be called in a transaction.
+     *
+     * @return false, without running {@code work}, if another instance holds the lock.
+     */
+    public boolean withSessionLock(Consumer<OrderPartitionJdbcRepository> work) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!connection.getAutoCommit()) {
+                throw new IllegalStateException("Partition work with a session lock cannot run in a transaction");
+            }
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(session.queryForObject(
+                    "SELECT pg_try_advisory_lock(hashtext('project.order_partitions'))", Boolean.class))) {
+                return false;
+            }
+            try {
+                work.accept(new OrderPartitionJdbcRepository(session));
+                return true;
+            } finally {
+                session.queryForObject("SELECT pg_advisory_unlock(hashtext('project.order_partitions'))", Boolean.class);
+            }
+        }));
+    }
+
+    /**
+     * @return the months that currently have a partition attached to {@code "order"}.
+     */
+    public SortedSet<YearMonth> findMonths() {
+        SortedSet<YearMonth> months = new TreeSet<>();
+        jdbcTemplate.query("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = 'project.\"order\"'::regclass",
+                (resultSet, rowNum) -> resultSet.getString(1)).stream()
+                .map(OrderPartitionJdbcRepository::parseMonth)
+                .filter(Objects::nonNull)
+                .forEach(months::add);
+        return months;
+    }
+
+    /**
+     * @return the months whose partition was detached from {@code "order"} but not yet attached
+     * to {@code order_archive}, left behind by an interrupted archive run.
+     */
+    public SortedSet<YearMonth> findDetachedMonths() {
+        SortedSet<YearMonth> months = new TreeSet<>();
+        jdbcTemplate.query("SELECT relname FROM pg_class WHERE relnamespace = 'project'::regnamespace "
+                        + "AND relkind = 'r' AND NOT relispartition AND relname LIKE 'order\\_p%'",
+                (resultSet, rowNum) -> resultSet.getString(1)).stream()
+                .map(OrderPartitionJdbcRepository::parseMonth)
+                .filter(Objects::nonNull)
+                .forEach(months::add);
+        return months;
+    }
+
+    public void create(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE project." + name(month) + " PARTITION OF project.\"order\"" + bounds(month));
+    }
+
+    public boolean containsStatus(YearMonth month, Collection<String> statuses) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM project." + name(month) + " WHERE status = ANY(?))", Boolean.class,
+                (Object) statuses.toArray(String[]::new)));
+    }
+
+    /**
+     * @return up to {@code limit} ids of the month's orders, in id order, after {@code after}
+     * when it is not null. Works whether or not the partition is attached.
+     */
+    public List<UUID> findOrderIds(YearMonth month, UUID after, int limit) {
+        String partition = "project." + name(month);
+        if (after == null) {
+            return jdbcTemplate.queryForList("SELECT id FROM " + partition + " ORDER BY id LIMIT ?", UUID.class, limit);
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM " + partition + " WHERE id > ? ORDER BY id LIMIT ?",
+                UUID.class, after, limit);
+    }
+
+    /**
+     * Copies the dish links of the given orders to {@code order_dish_archive}, skipping the ones
+     * already there.
+     */
+    public int copyDishes(Collection<UUID> orderIds) {
+        return updateForOrders("INSERT INTO project.order_dish_archive (order_id, dish_id, unit_price) "
+                + "SELECT order_id, dish_id, unit_price FROM project.order_dish WHERE order_id = ANY(?) "
+                + "ON CONFLICT DO NOTHING", orderIds);
+    }
+
+    /**
+     * Moves the dish links of the given orders to {@code order_dish_archive}; links copied
+     * before are only deleted.
+     */
+    public int moveDishes(Collection<UUID> orderIds) {
+        return updateForOrders("WITH moved AS (DELETE FROM project.order_dish WHERE order_id = ANY(?) "
+                + "RETURNING order_id, dish_id, unit_price) "
+                + "INSERT INTO project.order_dish_archive (order_id, dish_id, unit_price) "
+                + "SELECT order_id, dish_id, unit_price FROM moved ON CONFLICT DO NOTHING", orderIds);
+    }
+
+    /**
+     * Detaches the month from {@code "order"} concurrently: it waits for the queries using the
+     * partition instead of locking out every reader and writer of {@code "order"}. A detach left
+     * pending by an interrupted run is finished instead. Cannot run inside a transaction.
+     */
+    public void detach(YearMonth month) {
+        String partition = "project." + name(month);
+        Boolean pending = jdbcTemplate.queryForObject(
+                "SELECT inhdetachpending FROM pg_inherits WHERE inhrelid = '" + partition + "'::regclass", Boolean.class);
+        jdbcTemplate.execute("ALTER TABLE project.\"order\" DETACH PARTITION " + partition
+                + (Boolean.TRUE.equals(pending) ? " FINALIZE" : " CONCURRENTLY"));
+    }
+
+    /**
+     * Attaches a detached month to {@code order_archive}. The check constraint the concurrent
+     * detach leaves on the partition spares the scan that would otherwise validate its rows.
+     */
+    public void attachToArchive(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE project.order_archive ATTACH PARTITION project." + name(month) + bounds(month));
+    }
+
+    private int updateForOrders(String sql, Collection<UUID> orderIds) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("uuid", orderIds.toArray()));
+            return statement;
+        });
+    }
+
+    private static String name(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    private static String bounds(YearMonth month) {
+        return " FOR VALUES FROM ('" + Timestamp.valueOf(month.atDay(1).atStartOfDay())
+                + "') TO ('" + Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()) + "')";
+    }
+
+    private static YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -1,16 +1,42 @@
 package com.mobylab.springbackend.repository;
 
 import com.mobylab.springbackend.entity.Review;
-import com.mobylab.springbackend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
-    List<Review> findByDishId(UUID dishId);
 
-    List<Review> findByReviewer(User reviewer);
+    /**
+     * Reviews of a dish as flat rows, so the reviewer and dish are not loaded one by one.
+     */
+    @Query("select r.id as id, r.rating as rating, r.comment as comment, r.reviewDate as reviewDate,"
+            + " u.email as reviewerEmail, d.id as dishId"
+            + " from Review r left join r.reviewer u left join r.dish d where d.id = :dishId")
+    List<ReviewView> findViewsByDishId(@Param("dishId") UUID dishId);
+
+    @Query("select r.id as id, r.rating as rating, r.comment as comment, r.reviewDate as reviewDate,"
+            + " u.email as reviewerEmail, d.id as dishId"
+            + " from Review r join r.reviewer u left join r.dish d where u.emailNormalized = lower(trim(:email))")
+    List<ReviewView> findViewsByReviewerEmail(@Param("email") String email);
+
+    interface ReviewView {
+        UUID getId();
+
+        Integer getRating();
+
+        String getComment();
+
+        LocalDateTime getReviewDate();
+
+        String getReviewerEmail();
+
+        UUID getDishId();
+    }
 }
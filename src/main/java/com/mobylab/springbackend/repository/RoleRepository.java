@@ -1,11 +1,14 @@
 package com.mobylab.springbackend.repository;
 
+import com.mobylab.springbackend.config.CacheConfiguration;
 import com.mobylab.springbackend.entity.Role;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
 public interface RoleRepository  extends JpaRepository<Role, Integer> {
 
+    @Cacheable(cacheNames = CacheConfiguration.ROLES_CACHE, unless = "#result == null")
     Optional<Role> findRoleByName(String name);
 }
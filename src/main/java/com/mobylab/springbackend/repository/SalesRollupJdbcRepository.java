@@ -0,0 +1,136 @@
+package com.mobylab.springbackend.repository;
+
+import com.mobylab.springbackend.service.dto.DishSalesDto;
+import com.mobylab.springbackend.service.dto.SalesPeriodDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The {@code sales_daily_dish} rollup: one row per day and dish with the number of orders
+ * containing the dish and the revenue they brought, cancelled orders excluded. Revenue always
+ * comes from the unit price recorded on the order line, so the incremental updates and a
+ * rebuild agree whatever happened to the menu prices since.
+ */
+@Repository
+public class SalesRollupJdbcRepository {
+
+    // Raw history, hot and archived, in the shape of the rollup. Each order table is joined with
+    // its own line table: while a month is archived its lines sit in both for a while.
+    private static final String AGGREGATE_HISTORY =
+            "SELECT o.order_date::date, o.dish_id, count(*), sum(o.unit_price) "
+                    + "FROM (SELECT h.order_date, h.status, hd.dish_id, hd.unit_price "
+                    + "FROM project.\"order\" h JOIN project.order_dish hd ON hd.order_id = h.id "
+                    + "UNION ALL SELECT a.order_date, a.status, ad.dish_id, ad.unit_price "
+                    + "FROM project.order_archive a JOIN project.order_dish_archive ad ON ad.order_id = a.id) o "
+                    + "WHERE o.status <> 'CANCELLED'";
+
+    // The given orders per (day, dish), at the unit price each order line recorded.
+    private static final String AGGREGATE_ORDERS =
+            "SELECT o.order_date::date AS day, od.dish_id, count(*) AS orders, sum(od.unit_price) AS revenue "
+                    + "FROM project.\"order\" o JOIN project.order_dish od ON od.order_id = o.id "
+                    + "WHERE o.id = ANY(?) GROUP BY 1, 2";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesRollupJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the given orders to the rollup. Rows are upserted in key order so concurrent
+     * transactions touching the same dishes lock them in the same order.
+     */
+    public void addPlaced(Collection<UUID> orderIds) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO project.sales_daily_dish AS s (day, dish_id, order_count, revenue) "
+                            + "SELECT p.day, p.dish_id, p.orders, p.revenue FROM (" + AGGREGATE_ORDERS + ") p "
+                            + "ORDER BY p.day, p.dish_id "
+                            + "ON CONFLICT (day, dish_id) DO UPDATE "
+                            + "SET order_count = s.order_count + EXCLUDED.order_count, revenue = s.revenue + EXCLUDED.revenue");
+            statement.setArray(1, connection.createArrayOf("uuid", orderIds.toArray()));
+            return statement;
+        });
+    }
+
+    /**
+     * Takes the given orders back out of the rollup, at the same unit prices they were added with.
+     */
+    public void removeCancelled(Collection<UUID> orderIds) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE project.sales_daily_dish s "
+                            + "SET order_count = s.order_count - c.orders, revenue = s.revenue - c.revenue "
+                            + "FROM (" + AGGREGATE_ORDERS + ") c "
+                            + "WHERE s.day = c.day AND s.dish_id = c.dish_id");
+            statement.setArray(1, connection.createArrayOf("uuid", orderIds.toArray()));
+            return statement;
+        });
+    }
+
+    /**
+     * Recomputes the rollup for the days in [from, to] from raw history; null bounds are open.
+     * Locks the table first, so increments from concurrent orders wait and land on top of the
+     * rebuilt rows instead of being lost.
+     *
+     * @return the number of rollup rows written.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        jdbcTemplate.execute("LOCK TABLE project.sales_daily_dish IN EXCLUSIVE MODE");
+        StringBuilder delete = new StringBuilder("DELETE FROM project.sales_daily_dish WHERE true");
+        StringBuilder insert = new StringBuilder(
+                "INSERT INTO project.sales_daily_dish (day, dish_id, order_count, revenue) " + AGGREGATE_HISTORY);
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            delete.append(" AND day >= ?");
+            insert.append(" AND o.order_date >= ?");
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            delete.append(" AND day < ?");
+            insert.append(" AND o.order_date < ?");
+            args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        insert.append(" GROUP BY 1, 2");
+        jdbcTemplate.update(delete.toString(), args.toArray());
+        return jdbcTemplate.update(insert.toString(), args.toArray());
+    }
+
+    public List<DishSalesDto> findTopDishes(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(
+                "SELECT s.dish_id, d.name, sum(s.order_count) AS orders, sum(s.revenue) AS revenue "
+                        + "FROM project.sales_daily_dish s JOIN project.dish d ON d.id = s.dish_id "
+                        + "WHERE s.day BETWEEN ? AND ? GROUP BY s.dish_id, d.name "
+                        + "ORDER BY orders DESC, revenue DESC, s.dish_id LIMIT ?",
+                (resultSet, rowNum) -> new DishSalesDto()
+                        .setDishId(resultSet.getObject("dish_id", UUID.class))
+                        .setName(resultSet.getString("name"))
+                        .setOrderCount(resultSet.getLong("orders"))
+                        .setRevenue(resultSet.getBigDecimal("revenue")),
+                Date.valueOf(from), Date.valueOf(to), limit);
+    }
+
+    /**
+     * @param weekly group by ISO week (starting Monday) instead of by day.
+     */
+    public List<SalesPeriodDto> findRevenue(LocalDate from, LocalDate to, boolean weekly) {
+        String period = weekly ? "date_trunc('week', s.day)::date" : "s.day";
+        return jdbcTemplate.query(
+                "SELECT " + period + " AS period, sum(s.order_count) AS items, sum(s.revenue) AS revenue "
+                        + "FROM project.sales_daily_dish s WHERE s.day BETWEEN ? AND ? GROUP BY 1 ORDER BY 1",
+                (resultSet, rowNum) -> new SalesPeriodDto()
+                        .setPeriodStart(resultSet.getDate("period").toLocalDate())
+                        .setItemsSold(resultSet.getLong("items"))
+                        .setRevenue(resultSet.getBigDecimal("revenue")),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+}
@@ -0,0 +1,26 @@
+package com.mobylab.springbackend.repository;
+
+import com.mobylab.springbackend.entity.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    List<SigningKey> findByRetireAtAfterOrderByCreatedAtDesc(LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SigningKey k where k.retireAt <= :now")
+    int deleteRetired(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update SigningKey k set k.retireAt = :retireAt where k.kid = :kid and k.retireAt < :retireAt")
+    int extendRetireAt(@Param("kid") String kid, @Param("retireAt") LocalDateTime retireAt);
+}
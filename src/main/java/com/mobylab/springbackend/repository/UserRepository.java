@@ -2,11 +2,51 @@ package com.mobylab.springbackend.repository;
 
 import com.mobylab.springbackend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Email lookups compare against the unique, indexed {@code email_normalized} column,
+ * so they are case-insensitive and never scan the table.
+ */
 public interface UserRepository extends JpaRepository<User, UUID> {
-    Boolean existsUserByEmail(String email);
-    Optional<User> findUserByEmail(String email);
+    @Query("select count(u) > 0 from User u where u.emailNormalized = lower(trim(:email))")
+    Boolean existsUserByEmail(@Param("email") String email);
+
+    @Query("select u from User u where u.emailNormalized = lower(trim(:email))")
+    Optional<User> findUserByEmail(@Param("email") String email);
+
+    /**
+     * Resolves many users at once without loading their roles; {@code emails} must already be normalized.
+     */
+    @Query("select u.id as id, u.emailNormalized as emailNormalized, u.email as email, u.username as username"
+            + " from User u where u.emailNormalized in :emails")
+    List<UserReference> findReferencesByEmailNormalizedIn(@Param("emails") Collection<String> emails);
+
+    @Query("select u.securityStamp from User u where u.emailNormalized = lower(trim(:email))")
+    Optional<UUID> findSecurityStampByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("update User u set u.securityStamp = :stamp where u.emailNormalized = lower(trim(:email))")
+    int updateSecurityStamp(@Param("email") String email, @Param("stamp") UUID stamp);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.emailNormalized = lower(trim(:email))")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
+    interface UserReference {
+        UUID getId();
+
+        String getEmailNormalized();
+
+        String getEmail();
+
+        String getUsername();
+    }
 }
@@ -1,17 +1,24 @@
 package com.mobylab.springbackend.service;
 
+import com.mobylab.springbackend.config.security.AuthenticatedUser;
 import com.mobylab.springbackend.config.security.JwtGenerator;
+import com.mobylab.springbackend.config.security.TokenRevocationService;
 import com.mobylab.springbackend.entity.Role;
 import com.mobylab.springbackend.entity.User;
 import com.mobylab.springbackend.exception.BadRequestException;
 import com.mobylab.springbackend.repository.RoleRepository;
 import com.mobylab.springbackend.repository.UserRepository;
 import com.mobylab.springbackend.service.dto.LoginDto;
+import com.mobylab.springbackend.service.dto.LoginResponseDto;
 import com.mobylab.springbackend.service.dto.RegisterDto;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -21,6 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -37,6 +45,13 @@ public class AuthService {
 
     @Autowired
     private JwtGenerator jwtGenerator;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Value("${token.ttl}")
+    private long tokenTtl;
 
 
     public void register(RegisterDto registerDto) {
@@ -48,14 +63,19 @@ public class AuthService {
         List<Role> roleList = new ArrayList<>();
         roleList.add(roleRepository.findRoleByName("USER").get());
 
-        userRepository.save(new User()
-                .setEmail(registerDto.getEmail())
-                .setPassword(passwordEncoder.encode(registerDto.getPassword()))
-                .setUsername(registerDto.getUsername())
-                .setRoles(roleList));
+        try {
+            userRepository.saveAndFlush(new User()
+                    .setEmail(registerDto.getEmail())
+                    .setPassword(passwordEncoder.encode(registerDto.getPassword()))
+                    .setUsername(registerDto.getUsername())
+                    .setRoles(roleList));
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race against a concurrent registration of the same address.
+            throw new BadRequestException("Email is already used");
+        }
     }
 
-    public String login(LoginDto loginDto) {
+    public LoginResponseDto login(LoginDto loginDto) {
         Optional<User> optionalUser = userRepository.findUserByEmail(loginDto.getEmail());
         if(optionalUser.isEmpty()) {
             throw new BadRequestException("Wrong credentials");
@@ -66,7 +86,48 @@ public class AuthService {
                         loginDto.getEmail(),
                         loginDto.getPassword()));
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        return jwtGenerator.generateToken(authentication);
+        return buildResponse(jwtGenerator.generateToken(authentication), refreshTokenService.issue(optionalUser.get()));
+
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a rotated refresh token,
+     * without going through the password check again.
+     */
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public LoginResponseDto refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new BadRequestException("Refresh token is required");
+        }
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.getUser();
+
+        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.getName()))
+                .collect(Collectors.toList());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(user.getId(), user.getEmail(), user.getUsername(), "", authorities),
+                null,
+                authorities);
+        return buildResponse(jwtGenerator.generateToken(authentication), rotation.getRefreshToken());
+    }
+
+    /**
+     * Revokes the presented access token and, when given, the refresh token family it was issued with.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        Claims claims = jwtGenerator.verifyToken(accessToken);
+        tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
 
+    private LoginResponseDto buildResponse(String accessToken, String refreshToken) {
+        return new LoginResponseDto()
+                .setToken(accessToken)
+                .setExpire(tokenTtl)
+                .setRefreshToken(refreshToken)
+                .setRefreshExpire(refreshTokenService.getRefreshTtl());
     }
 }
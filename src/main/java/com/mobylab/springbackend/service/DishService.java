@@ -1,37 +1,25 @@
 package com.mobylab.springbackend.service;
 
 import com.mobylab.springbackend.entity.Dish;
+import com.mobylab.springbackend.entity.KitchenStation;
+import com.mobylab.springbackend.exception.BadRequestException;
 import com.mobylab.springbackend.service.dto.DishDto;
 import com.mobylab.springbackend.repository.DishRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @Transactional
 public class DishService {
 
     private final DishRepository dishRepository;
+    private final MenuSnapshot menuSnapshot;
 
-    public DishService(DishRepository dishRepository) {
+    public DishService(DishRepository dishRepository, MenuSnapshot menuSnapshot) {
         this.dishRepository = dishRepository;
-    }
-
-    private DishDto mapDishToDto(Dish dish) {
-        if (dish == null) return null;
-        DishDto dto = new DishDto();
-        dto.setId(dish.getId());
-        dto.setName(dish.getName());
-        dto.setDescription(dish.getDescription());
-        dto.setPrice(dish.getPrice());
-        return dto;
-    }
-
-    private List<DishDto> mapDishListToDtoList(List<Dish> dishes) {
-        return dishes.stream()
-                .map(this::mapDishToDto)
-                .collect(Collectors.toList());
+        this.menuSnapshot = menuSnapshot;
     }
 
     public DishDto addDish(DishDto dishDto) {
@@ -39,13 +27,22 @@ public class DishService {
         dish.setName(dishDto.getName());
         dish.setDescription(dishDto.getDescription());
         dish.setPrice(dishDto.getPrice());
+        if (dishDto.getStation() != null) {
+            KitchenStation station = KitchenStation.parse(dishDto.getStation());
+            if (station == null) {
+                throw new BadRequestException("Unknown kitchen station: " + dishDto.getStation());
+            }
+            dish.setStation(station);
+        }
         Dish savedDish = dishRepository.save(dish);
         dishDto.setId(savedDish.getId());
+        dishDto.setStation(savedDish.getStation().name());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                menuSnapshot.reload();
+            }
+        });
         return dishDto;
     }
-
-    public List<DishDto> getAllDishes() {
-        List<Dish> dishes = dishRepository.findAll();
-        return mapDishListToDtoList(dishes);
-    }
 }
\ No newline at end of file
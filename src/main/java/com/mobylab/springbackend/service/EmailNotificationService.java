@@ -1,22 +1,75 @@
 package com.mobylab.springbackend.service;
 
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import com.mobylab.springbackend.entity.EmailOutboxMessage;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
 @Service
 public class EmailNotificationService {
 
-    @Autowired
-    private JavaMailSender mailSender;
+    private final SmtpConnectionPool smtpConnectionPool;
+
+    public EmailNotificationService(SmtpConnectionPool smtpConnectionPool) {
+        this.smtpConnectionPool = smtpConnectionPool;
+    }
+
+    /**
+     * Sends a batch of outbox messages over the pooled SMTP connections.
+     *
+     * @return the error of every message that was not accepted, by message id
+     */
+    public Map<UUID, String> sendAll(List<EmailOutboxMessage> messages) {
+        return sendAll(messages, message -> true, message -> {
+        });
+    }
+
+    /**
+     * Like {@link #sendAll(List)}, but asks {@code beforeSend} right before every attempt to send
+     * a message, and tells {@code accepted} about each one as soon as the server took it. A message
+     * {@code beforeSend} turns down is not sent and comes back as a failure.
+     */
+    public Map<UUID, String> sendAll(List<EmailOutboxMessage> messages, Predicate<EmailOutboxMessage> beforeSend,
+                                     Consumer<EmailOutboxMessage> accepted) {
+        Map<UUID, String> failures = new HashMap<>();
+        List<EmailOutboxMessage> built = new ArrayList<>(messages.size());
+        List<MimeMessage> mimeMessages = new ArrayList<>(messages.size());
+        for (EmailOutboxMessage message : messages) {
+            try {
+                mimeMessages.add(toMimeMessage(message));
+                built.add(message);
+            } catch (MessagingException e) {
+                failures.put(message.getId(), e.getMessage());
+            }
+        }
+
+        List<Exception> results = smtpConnectionPool.sendAll(mimeMessages,
+                index -> beforeSend.test(built.get(index)), index -> accepted.accept(built.get(index)));
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != null) {
+                failures.put(built.get(i).getId(), results.get(i).getMessage());
+            }
+        }
+        return failures;
+    }
 
-    public void sendOrderConfirmation(String toEmail, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(toEmail);
-        message.setSubject(subject);
-        message.setText(body);
-        mailSender.send(message);
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = smtpConnectionPool.createMimeMessage();
+        mimeMessage.setRecipient(Message.RecipientType.TO, new InternetAddress(message.getRecipient()));
+        mimeMessage.setSubject(message.getSubject(), StandardCharsets.UTF_8.name());
+        mimeMessage.setText(message.getBody(), StandardCharsets.UTF_8.name());
+        return mimeMessage;
     }
 }
@@ -0,0 +1,75 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.entity.EmailOutboxMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drains the email outbox in the background. Each batch is claimed in a short transaction
+ * and sent outside of it over the pooled SMTP connections, so no database connection is held
+ * during the SMTP round trips. Each message's lease is renewed before it is sent and the message
+ * is marked sent as soon as the server accepts it; one that has been claimed by another
+ * dispatcher in the meantime is left to that dispatcher.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailNotificationService emailNotificationService;
+
+    public EmailOutboxDispatcher(EmailOutboxService emailOutboxService,
+                                 EmailNotificationService emailNotificationService) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailNotificationService = emailNotificationService;
+    }
+
+    /**
+     * Sends due messages batch by batch until the outbox has nothing left that is due.
+     *
+     * @return the number of messages sent
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:5000}",
+            initialDelayString = "${mail.outbox.poll-interval:5000}")
+    public int dispatch() {
+        int sent = 0;
+        List<EmailOutboxMessage> batch;
+        do {
+            batch = emailOutboxService.claimBatch();
+            if (batch.isEmpty()) {
+                break;
+            }
+            Set<UUID> lost = ConcurrentHashMap.newKeySet();
+            // Marked sent one by one: a message sent early in a slow batch would otherwise come
+            // due again before the batch is through.
+            Map<UUID, String> failures = emailNotificationService.sendAll(batch,
+                    message -> {
+                        if (emailOutboxService.renewLease(message)) {
+                            return true;
+                        }
+                        lost.add(message.getId());
+                        return false;
+                    },
+                    message -> emailOutboxService.markSent(List.of(message.getId())));
+            for (EmailOutboxMessage message : batch) {
+                if (failures.containsKey(message.getId()) && !lost.contains(message.getId())) {
+                    emailOutboxService.markFailed(message.getId(), failures.get(message.getId()));
+                }
+            }
+            sent += batch.size() - failures.size();
+        } while (batch.size() == emailOutboxService.getBatchSize());
+        if (sent > 0) {
+            logger.info("Sent {} emails from the outbox", sent);
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,137 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.entity.EmailOutboxMessage;
+import com.mobylab.springbackend.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Transactional outbox for outgoing email. Messages are written in the caller's transaction,
+ * so they exist if and only if the business change they announce was committed, and are sent
+ * later by {@link EmailOutboxDispatcher}.
+ * A claimed message is leased for {@code mail.outbox.lease} before it becomes due again, so a
+ * dispatcher that dies mid-send only delays the message. The lease is renewed right before every
+ * attempt to send, so it has to outlast one SMTP attempt (connect, write and read timeouts), not
+ * a whole batch waiting its turn for the pooled connections; a message whose lease ran out and
+ * was claimed by another dispatcher is skipped instead of sent twice. Failed sends are retried with
+ * exponential backoff and moved to DEAD after {@code mail.outbox.max-attempts}.
+ */
+@Service
+@Transactional
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final int batchSize;
+    private final long lease;
+    private final int maxAttempts;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final long sentRetention;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              @Value("${mail.outbox.batch-size:50}") int batchSize,
+                              @Value("${mail.outbox.lease:60000}") long lease,
+                              @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                              @Value("${mail.outbox.initial-backoff:30000}") long initialBackoff,
+                              @Value("${mail.outbox.max-backoff:3600000}") long maxBackoff,
+                              @Value("${mail.outbox.sent-retention:604800000}") long sentRetention) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.sentRetention = sentRetention;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Queues a message as part of the current transaction; there must be one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public UUID enqueue(String recipient, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        return emailOutboxRepository.save(new EmailOutboxMessage()
+                .setRecipient(recipient)
+                .setSubject(subject)
+                .setBody(body)
+                .setStatus(EmailOutboxMessage.Status.PENDING)
+                .setCreatedAt(now)
+                .setNextAttemptAt(now)).getId();
+    }
+
+    /**
+     * Takes up to one batch of due messages and leases them to the caller.
+     */
+    public List<EmailOutboxMessage> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> due = emailOutboxRepository.lockDue(now, batchSize);
+        LocalDateTime leasedUntil = now.plusNanos(lease * 1_000_000);
+        for (EmailOutboxMessage message : due) {
+            message.setAttempts(message.getAttempts() + 1)
+                    .setNextAttemptAt(leasedUntil);
+        }
+        return due;
+    }
+
+    /**
+     * Extends the lease of a claimed message before an attempt to send it.
+     *
+     * @return false if the lease ran out and another dispatcher has claimed the message since
+     */
+    public boolean renewLease(EmailOutboxMessage message) {
+        LocalDateTime leasedUntil = LocalDateTime.now().plusNanos(lease * 1_000_000);
+        return emailOutboxRepository.renewLease(message.getId(), message.getAttempts(), leasedUntil) == 1;
+    }
+
+    public void markSent(Collection<UUID> ids) {
+        if (!ids.isEmpty()) {
+            emailOutboxRepository.markSent(ids, LocalDateTime.now());
+        }
+    }
+
+    public void markFailed(UUID id, String error) {
+        emailOutboxRepository.findById(id).ifPresent(message -> {
+            message.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(EmailOutboxMessage.Status.DEAD);
+                logger.error("Giving up on email {} to {} after {} attempts: {}", id, message.getRecipient(), message.getAttempts(), error);
+            } else {
+                message.setNextAttemptAt(LocalDateTime.now().plusNanos(backoff(message.getAttempts()) * 1_000_000));
+                logger.warn("Sending email {} to {} failed (attempt {}), retrying later: {}", id, message.getRecipient(), message.getAttempts(), error);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.cleanup-interval:3600000}")
+    public void deleteSent() {
+        int deleted = emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusNanos(sentRetention * 1_000_000));
+        if (deleted > 0) {
+            logger.info("Deleted {} sent outbox emails", deleted);
+        }
+    }
+
+    // Exponential backoff with up to 20% jitter so messages failed together do not retry together.
+    private long backoff(int attempts) {
+        long delay = initialBackoff << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, maxBackoff);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+}
@@ -0,0 +1,121 @@
+package com.mobylab.springbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain-text email templates from {@code classpath:templates/email/*.txt}, compiled once at
+ * startup into literal and {@code {{placeholder}}} segments so rendering is a single pass over
+ * a precomputed list. The first line of a template is {@code Subject: ...}, followed by a
+ * blank line and the body; both may use placeholders.
+ */
+@Service
+public class EmailTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateService.class);
+    private static final String LOCATION = "classpath:templates/email/*.txt";
+    private static final String SUBJECT_PREFIX = "Subject:";
+
+    private final Map<String, CompiledEmail> templates = new HashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            String filename = resource.getFilename();
+            String name = filename.substring(0, filename.length() - ".txt".length());
+            templates.put(name, compileEmail(name, resource.getContentAsString(StandardCharsets.UTF_8)));
+        }
+        logger.info("Compiled email templates {}", templates.keySet());
+    }
+
+    public RenderedEmail render(String name, Map<String, ?> values) {
+        CompiledEmail template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template " + name);
+        }
+        return new RenderedEmail(template.subject.render(values), template.body.render(values));
+    }
+
+    private static CompiledEmail compileEmail(String name, String source) {
+        String text = source.replace("\r\n", "\n");
+        int headerEnd = text.indexOf('\n');
+        if (!text.startsWith(SUBJECT_PREFIX) || headerEnd < 0) {
+            throw new IllegalStateException("Email template " + name + " must start with a Subject: line");
+        }
+        String subject = text.substring(SUBJECT_PREFIX.length(), headerEnd).trim();
+        String body = text.substring(headerEnd + 1);
+        if (body.startsWith("\n")) {
+            body = body.substring(1);
+        }
+        return new CompiledEmail(compile(name, subject), compile(name, body));
+    }
+
+    static Template compile(String name, String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        int start;
+        while ((start = text.indexOf("{{", position)) >= 0) {
+            int end = text.indexOf("}}", start);
+            if (end < 0) {
+                throw new IllegalStateException("Unclosed placeholder in email template " + name);
+            }
+            literals.add(text.substring(position, start));
+            placeholders.add(text.substring(start + 2, end).trim());
+            position = end + 2;
+        }
+        literals.add(text.substring(position));
+        return new Template(name, literals.toArray(String[]::new), placeholders.toArray(String[]::new));
+    }
+
+    public record RenderedEmail(String subject, String body) {
+    }
+
+    private record CompiledEmail(Template subject, Template body) {
+    }
+
+    /**
+     * Literals and placeholders alternate: literals[0], placeholders[0], literals[1], ...
+     */
+    static final class Template {
+        private final String name;
+        private final String[] literals;
+        private final String[] placeholders;
+        private final int literalLength;
+
+        private Template(String name, String[] literals, String[] placeholders) {
+            this.name = name;
+            this.literals = literals;
+            this.placeholders = placeholders;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        String render(Map<String, ?> values) {
+            StringBuilder builder = new StringBuilder(literalLength + 32 * placeholders.length);
+            for (int i = 0; i < placeholders.length; i++) {
+                builder.append(literals[i]);
+                Object value = values.get(placeholders[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing value for " + placeholders[i] + " in email template " + name);
+                }
+                builder.append(value);
+            }
+            return builder.append(literals[placeholders.length]).toString();
+        }
+    }
+}
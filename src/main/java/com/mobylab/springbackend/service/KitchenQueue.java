@@ -0,0 +1,250 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.entity.KitchenStation;
+import com.mobylab.springbackend.entity.OrderStatus;
+import com.mobylab.springbackend.exception.TooManyRequestsException;
+import com.mobylab.springbackend.repository.OrderJdbcRepository;
+import com.mobylab.springbackend.service.dto.KitchenTicketDto;
+import com.mobylab.springbackend.service.dto.OrderDto;
+import com.mobylab.springbackend.service.dto.OrderEventDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory kitchen work queue. Every committed order is split into one ticket per station
+ * (by the dishes' station in the {@link MenuSnapshot}), and each station serves its tickets by
+ * priority, then age. All state lives in concurrent skip lists and maps, so placing orders and
+ * claiming tickets never take a lock. The queue is rebuilt from the open orders on startup;
+ * tickets claimed before a restart come back unclaimed. Once a station has
+ * {@code kitchen.max-backlog} open tickets, new orders that need it are refused with a 429.
+ * The check runs before the order is inserted, so concurrent placements can overshoot the
+ * limit slightly.
+ */
+@Component
+public class KitchenQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenQueue.class);
+
+    private static final Comparator<Ticket> SERVICE_ORDER = Comparator.comparingInt(Ticket::priority).reversed()
+            .thenComparing(Ticket::orderDate)
+            .thenComparingLong(Ticket::sequence);
+
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final MenuSnapshot menuSnapshot;
+    private final int maxBacklog;
+    private final long retryAfterSeconds;
+    private final long claimTimeout;
+
+    private final Map<KitchenStation, ConcurrentSkipListSet<Ticket>> pending = new EnumMap<>(KitchenStation.class);
+    private final Map<KitchenStation, AtomicInteger> backlog = new EnumMap<>(KitchenStation.class);
+    // Every open ticket, pending or claimed, in its current state.
+    private final Map<TicketKey, Ticket> tickets = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public KitchenQueue(OrderJdbcRepository orderJdbcRepository,
+                        MenuSnapshot menuSnapshot,
+                        @Value("${kitchen.max-backlog:200}") int maxBacklog,
+                        @Value("${kitchen.retry-after:30}") long retryAfterSeconds,
+                        @Value("${kitchen.claim-timeout:900000}") long claimTimeout) {
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.menuSnapshot = menuSnapshot;
+        this.maxBacklog = maxBacklog;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.claimTimeout = claimTimeout;
+        for (KitchenStation station : KitchenStation.values()) {
+            pending.put(station, new ConcurrentSkipListSet<>(SERVICE_ORDER));
+            backlog.put(station, new AtomicInteger());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<OrderDto> open = orderJdbcRepository.findDtosByStatus(
+                List.of(OrderStatus.PLACED.name(), OrderStatus.PREPARING.name()));
+        for (OrderDto order : open) {
+            add(order.getId(), order.getPriority(), order.getOrderDate(), order.getDishIds());
+        }
+        logger.info("Rebuilt kitchen queue from {} open orders, backlog {}", open.size(), getBacklog());
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEventDto event) {
+        if (OrderEventDto.PLACED.equals(event.getType())) {
+            add(event.getOrderId(), event.getPriority(), event.getOccurredAt(), event.getDishIds());
+        } else if (!OrderStatus.PLACED.name().equals(event.getStatus()) && !OrderStatus.PREPARING.name().equals(event.getStatus())) {
+            // Ready, delivered or cancelled elsewhere: nothing left for the kitchen.
+            drop(event.getOrderId());
+        }
+    }
+
+    public boolean hasCapacity(Collection<UUID> dishIds) {
+        return dishIds.stream()
+                .map(menuSnapshot::stationOf)
+                .distinct()
+                .allMatch(station -> backlog.get(station).get() < maxBacklog);
+    }
+
+    public void checkCapacity(Collection<UUID> dishIds) {
+        if (!hasCapacity(dishIds)) {
+            throw new TooManyRequestsException("The kitchen is at capacity, please retry shortly", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Takes up to {@code max} tickets off the front of the station's queue for {@code cook}.
+     */
+    public List<KitchenTicketDto> claim(KitchenStation station, String cook, int max) {
+        List<KitchenTicketDto> claimed = new ArrayList<>(max);
+        ConcurrentSkipListSet<Ticket> queue = pending.get(station);
+        Instant now = Instant.now();
+        while (claimed.size() < max) {
+            Ticket ticket = queue.pollFirst();
+            if (ticket == null) {
+                break;
+            }
+            Ticket claimedTicket = ticket.claim(cook, now);
+            // Fails only if the order was dropped after the ticket was polled.
+            if (tickets.replace(ticket.key(), ticket, claimedTicket)) {
+                claimed.add(claimedTicket.toDto());
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Closes a claimed ticket.
+     *
+     * @return null if there is no claimed ticket for that order at that station, otherwise
+     * whether it was the order's last open ticket.
+     */
+    public Boolean complete(UUID orderId, KitchenStation station) {
+        TicketKey key = new TicketKey(orderId, station);
+        Ticket ticket = tickets.get(key);
+        if (ticket == null || ticket.claimedBy() == null || !tickets.remove(key, ticket)) {
+            return null;
+        }
+        backlog.get(station).decrementAndGet();
+        for (KitchenStation other : KitchenStation.values()) {
+            if (tickets.containsKey(new TicketKey(orderId, other))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the station's pending tickets in service order, at most {@code limit}, followed by the claimed ones.
+     */
+    public List<KitchenTicketDto> view(KitchenStation station, int limit) {
+        List<KitchenTicketDto> view = new ArrayList<>();
+        Iterator<Ticket> iterator = pending.get(station).iterator();
+        while (iterator.hasNext() && view.size() < limit) {
+            view.add(iterator.next().toDto());
+        }
+        tickets.values().stream()
+                .filter(ticket -> ticket.station() == station && ticket.claimedBy() != null)
+                .sorted(SERVICE_ORDER)
+                .forEach(ticket -> view.add(ticket.toDto()));
+        return view;
+    }
+
+    public Map<KitchenStation, Integer> getBacklog() {
+        Map<KitchenStation, Integer> counts = new EnumMap<>(KitchenStation.class);
+        backlog.forEach((station, count) -> counts.put(station, count.get()));
+        return counts;
+    }
+
+    /**
+     * Puts tickets whose cook has not completed them within {@code kitchen.claim-timeout} back in the queue.
+     */
+    @Scheduled(fixedDelayString = "${kitchen.requeue-interval:60000}")
+    public void requeueExpiredClaims() {
+        Instant expiredBefore = Instant.now().minusMillis(claimTimeout);
+        for (Ticket ticket : tickets.values()) {
+            if (ticket.claimedAt() != null && ticket.claimedAt().isBefore(expiredBefore)) {
+                Ticket unclaimed = ticket.unclaim();
+                if (tickets.replace(ticket.key(), ticket, unclaimed)) {
+                    pending.get(ticket.station()).add(unclaimed);
+                    logger.warn("Requeued {} ticket of order {} claimed by {} at {}",
+                            ticket.station(), ticket.orderId(), ticket.claimedBy(), ticket.claimedAt());
+                }
+            }
+        }
+    }
+
+    private void add(UUID orderId, Integer priority, LocalDateTime orderDate, List<UUID> dishIds) {
+        Map<KitchenStation, List<UUID>> byStation = dishIds.stream()
+                .collect(Collectors.groupingBy(menuSnapshot::stationOf, () -> new EnumMap<>(KitchenStation.class), Collectors.toList()));
+        byStation.forEach((station, stationDishes) -> {
+            Ticket ticket = new Ticket(orderId, station, priority == null ? 0 : priority, orderDate,
+                    sequence.incrementAndGet(), List.copyOf(stationDishes), null, null);
+            // The rebuild on startup may race with orders placed right after it.
+            if (tickets.putIfAbsent(ticket.key(), ticket) == null) {
+                pending.get(station).add(ticket);
+                backlog.get(station).incrementAndGet();
+            }
+        });
+    }
+
+    private void drop(UUID orderId) {
+        for (KitchenStation station : KitchenStation.values()) {
+            Ticket ticket = tickets.remove(new TicketKey(orderId, station));
+            if (ticket != null) {
+                pending.get(station).remove(ticket);
+                backlog.get(station).decrementAndGet();
+            }
+        }
+    }
+
+    private record TicketKey(UUID orderId, KitchenStation station) {
+    }
+
+    private record Ticket(UUID orderId, KitchenStation station, int priority, LocalDateTime orderDate, long sequence,
+                          List<UUID> dishIds, String claimedBy, Instant claimedAt) {
+
+        TicketKey key() {
+            return new TicketKey(orderId, station);
+        }
+
+        Ticket claim(String cook, Instant at) {
+            return new Ticket(orderId, station, priority, orderDate, sequence, dishIds, cook, at);
+        }
+
+        Ticket unclaim() {
+            return new Ticket(orderId, station, priority, orderDate, sequence, dishIds, null, null);
+        }
+
+        KitchenTicketDto toDto() {
+            return new KitchenTicketDto()
+                    .setOrderId(orderId)
+                    .setStation(station.name())
+                    .setPriority(priority)
+                    .setOrderDate(orderDate)
+                    .setDishIds(dishIds)
+                    .setClaimedBy(claimedBy)
+                    .setClaimedAt(claimedAt);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.entity.KitchenStation;
+import com.mobylab.springbackend.entity.OrderStatus;
+import com.mobylab.springbackend.exception.BadRequestException;
+import com.mobylab.springbackend.service.dto.KitchenTicketDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Station-facing operations on the {@link KitchenQueue} that also move the orders along:
+ * an order becomes PREPARING when a station claims its first ticket and READY once every
+ * station has completed its ticket.
+ */
+@Service
+public class KitchenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenService.class);
+
+    private final KitchenQueue kitchenQueue;
+    private final OrderService orderService;
+    private final int maxClaim;
+
+    public KitchenService(KitchenQueue kitchenQueue,
+                          OrderService orderService,
+                          @Value("${kitchen.max-claim:20}") int maxClaim) {
+        this.kitchenQueue = kitchenQueue;
+        this.orderService = orderService;
+        this.maxClaim = maxClaim;
+    }
+
+    public List<KitchenTicketDto> claim(String stationName, String cook, int max) {
+        KitchenStation station = parseStation(stationName);
+        if (max < 1 || max > maxClaim) {
+            throw new BadRequestException("Can claim between 1 and " + maxClaim + " tickets at once.");
+        }
+        List<KitchenTicketDto> claimed = kitchenQueue.claim(station, cook, max);
+        if (!claimed.isEmpty()) {
+            // Orders another station already started are reported as conflicts and left alone.
+            orderService.changeStatus(claimed.stream().map(KitchenTicketDto::getOrderId).toList(),
+                    OrderStatus.PLACED.name(), OrderStatus.PREPARING.name());
+            logger.info("{} claimed {} {} tickets", cook, claimed.size(), station);
+        }
+        return claimed;
+    }
+
+    public void complete(String stationName, UUID orderId) {
+        KitchenStation station = parseStation(stationName);
+        Boolean lastTicket = kitchenQueue.complete(orderId, station);
+        if (lastTicket == null) {
+            throw new EntityNotFoundException("No claimed " + station + " ticket for order " + orderId);
+        }
+        if (lastTicket) {
+            orderService.changeStatus(List.of(orderId), OrderStatus.PREPARING.name(), OrderStatus.READY.name());
+        }
+    }
+
+    public List<KitchenTicketDto> getTickets(String stationName, int limit) {
+        return kitchenQueue.view(parseStation(stationName), Math.max(1, Math.min(limit, 500)));
+    }
+
+    public Map<KitchenStation, Integer> getBacklog() {
+        return kitchenQueue.getBacklog();
+    }
+
+    private static KitchenStation parseStation(String name) {
+        KitchenStation station = KitchenStation.parse(name);
+        if (station == null) {
+            throw new BadRequestException("Unknown kitchen station: " + name);
+        }
+        return station;
+    }
+}
@@ -0,0 +1,199 @@
+package com.mobylab.springbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobylab.springbackend.entity.Dish;
+import com.mobylab.springbackend.entity.KitchenStation;
+import com.mobylab.springbackend.repository.DishRepository;
+import com.mobylab.springbackend.service.dto.DishDto;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Immutable, versioned copy of the menu held in memory. Order placement validates dish ids,
+ * the kitchen routes tickets and live screens label dishes with hash lookups on it, and
+ * {@code GET /api/v1/dishes} serves its pre-serialized JSON, so neither queries the database.
+ * A reload builds a new {@link Menu} and swaps it in with a single volatile write; readers keep
+ * whichever one they started with. Reloads happen every {@code menu.snapshot.refresh-interval},
+ * after a dish is added on this instance, and when an order names an unknown dish (at most once
+ * per {@code menu.snapshot.min-reload-interval}), which picks up dishes added on other instances.
+ * A reload that finds the same menu keeps the current version.
+ */
+@Service
+public class MenuSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSnapshot.class);
+    private static final byte[] EMPTY_JSON = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final DishRepository dishRepository;
+    private final ObjectMapper objectMapper;
+    private final long minReloadInterval;
+    // Not synchronized: reloads run a query, which would pin the carrier of a virtual thread.
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Menu menu = new Menu(0, Map.of(), EMPTY_JSON, hash(EMPTY_JSON));
+    private volatile long loadedAt;
+
+    public MenuSnapshot(DishRepository dishRepository,
+                        ObjectMapper objectMapper,
+                        @Value("${menu.snapshot.min-reload-interval:5000}") long minReloadInterval) {
+        this.dishRepository = dishRepository;
+        this.objectMapper = objectMapper;
+        this.minReloadInterval = minReloadInterval;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${menu.snapshot.refresh-interval:60000}",
+            initialDelayString = "${menu.snapshot.refresh-interval:60000}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            // Sorted so the same menu always serializes to the same bytes, and so the same ETag, on every instance.
+            List<Dish> dishes = dishRepository.findAll(Sort.by("name", "id"));
+            Map<UUID, Item> items = new HashMap<>();
+            List<DishDto> dtos = new ArrayList<>(dishes.size());
+            for (Dish dish : dishes) {
+                items.put(dish.getId(), new Item(dish.getName(), dish.getStation()));
+                dtos.add(toDto(dish));
+            }
+            byte[] json = objectMapper.writeValueAsBytes(dtos);
+            String etag = hash(json);
+            loadedAt = System.currentTimeMillis();
+            if (etag.equals(menu.etag)) {
+                return;
+            }
+            menu = new Menu(menu.version + 1, items, json, etag);
+            logger.info("Loaded menu version {} with {} dishes", menu.version, items.size());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the menu", e);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    public Menu current() {
+        return menu;
+    }
+
+    /**
+     * @return the ids that are not on the menu, empty when all of them are.
+     */
+    public List<UUID> findUnknown(Collection<UUID> ids) {
+        List<UUID> unknown = filterUnknown(ids, menu.items);
+        if (!unknown.isEmpty() && reloadIfStale()) {
+            unknown = filterUnknown(unknown, menu.items);
+        }
+        return unknown;
+    }
+
+    /**
+     * @return the station preparing the dish, the default station for a dish no longer on the menu.
+     */
+    public KitchenStation stationOf(UUID dishId) {
+        Item item = menu.items.get(dishId);
+        return item == null ? KitchenStation.DEFAULT : item.station();
+    }
+
+    /**
+     * @return the dish name, null for a dish no longer on the menu.
+     */
+    public String nameOf(UUID dishId) {
+        Item item = menu.items.get(dishId);
+        return item == null ? null : item.name();
+    }
+
+    private boolean reloadIfStale() {
+        reloadLock.lock();
+        try {
+            if (System.currentTimeMillis() - loadedAt < minReloadInterval) {
+                return false;
+            }
+            reload();
+            return true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private static List<UUID> filterUnknown(Collection<UUID> ids, Map<UUID, Item> known) {
+        return ids.stream().filter(id -> !known.containsKey(id)).toList();
+    }
+
+    private static DishDto toDto(Dish dish) {
+        DishDto dto = new DishDto();
+        dto.setId(dish.getId());
+        dto.setName(dish.getName());
+        dto.setDescription(dish.getDescription());
+        dto.setPrice(dish.getPrice());
+        dto.setStation(dish.getStation().name());
+        return dto;
+    }
+
+    private static String hash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * One version of the menu. Never modified after construction; the JSON array is shared, so
+     * callers must not write to it.
+     */
+    public static final class Menu {
+        private final long version;
+        private final Map<UUID, Item> items;
+        private final byte[] json;
+        private final String etag;
+
+        private Menu(long version, Map<UUID, Item> items, byte[] json, String etag) {
+            this.version = version;
+            this.items = Map.copyOf(items);
+            this.json = json;
+            this.etag = etag;
+        }
+
+        /**
+         * @return a number incremented on this instance each time the menu changes.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return the menu as served by {@code GET /api/v1/dishes}, a JSON array of dishes sorted by name.
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * @return a strong, quoted ETag derived from the SHA-256 of {@link #getJson()}, equal across instances.
+         */
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    private record Item(String name, KitchenStation station) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.entity.User;
+import com.mobylab.springbackend.exception.TooManyRequestsException;
+import com.mobylab.springbackend.service.dto.OrderEventDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed order events out to Server-Sent Events subscribers. Publishing only offers
+ * the event to each matching subscriber's bounded queue; the writes to the connections happen
+ * on a small dispatch pool, at most one drain per subscriber at a time. A subscriber whose
+ * queue overflows is disconnected rather than buffered further, and is expected to reload its
+ * orders and subscribe again.
+ */
+@Component
+public class OrderEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventHub.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeout;
+
+    public OrderEventHub(@Value("${orders.events.buffer-size:64}") int bufferSize,
+                         @Value("${orders.events.max-subscribers:1000}") int maxSubscribers,
+                         @Value("${orders.events.timeout:1800000}") long timeout,
+                         @Value("${orders.events.dispatch-threads:4}") int dispatchThreads) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        AtomicInteger counter = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param clientEmail only events for this client's orders are sent; null for every order.
+     */
+    public SseEmitter subscribe(String clientEmail) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many open order event streams, please retry shortly", 30);
+        }
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter, clientEmail == null ? null : User.normalizeEmail(clientEmail), bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Flushes the response headers so the client knows the stream is open.
+        subscriber.offer(SseEmitter.event().comment("subscribed"));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void publish(OrderEventDto event) {
+        String clientEmail = event.getClientEmail() == null ? null : User.normalizeEmail(event.getClientEmail());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.clientEmail == null || subscriber.clientEmail.equals(clientEmail)) {
+                subscriber.offer(SseEmitter.event().name(event.getType()).id(event.getOrderId().toString()).data(event));
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds the ones that were closed.
+     */
+    @Scheduled(fixedDelayString = "${orders.events.heartbeat-interval:20000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        dispatcher.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String clientEmail;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, String clientEmail, int bufferSize) {
+            this.emitter = emitter;
+            this.clientEmail = clientEmail;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                logger.warn("Disconnecting order event subscriber that fell {} events behind", bufferSize);
+                subscribers.remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        subscribers.remove(this);
+                        queue.clear();
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An offer that raced with the end of the loop above saw draining still set.
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
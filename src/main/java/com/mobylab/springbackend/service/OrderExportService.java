@@ -0,0 +1,108 @@
+package com.mobylab.springbackend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobylab.springbackend.repository.OrderJdbcRepository;
+import com.mobylab.springbackend.service.dto.OrderDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the order history as NDJSON or CSV straight from a database cursor to the response.
+ * Each row is serialized and dropped as soon as it is read and no entities are involved, so
+ * memory use does not depend on how many orders are exported.
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final String CSV_HEADER = "id,order_date,status,client_email,dish_ids\n";
+
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderJdbcRepository orderJdbcRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper) {
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportOrders(boolean csv, String status, LocalDateTime from, LocalDateTime to, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        // The writer is shared with the CSV path, so the generator must not close it.
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        long[] exported = new long[1];
+        if (csv) {
+            writer.write(CSV_HEADER);
+        }
+        try {
+            // The transaction is what lets the driver fetch the rows through a cursor.
+            transactionTemplate.executeWithoutResult(transactionStatus -> orderJdbcRepository.streamDtos(status, from, to, order -> {
+                try {
+                    if (csv) {
+                        writeCsv(writer, order);
+                    } else {
+                        objectMapper.writeValue(generator, order);
+                        generator.flush();
+                        writer.write('\n');
+                    }
+                    exported[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            logger.warn("Order export aborted after {} rows: {}", exported[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Exported {} orders as {}", exported[0], csv ? "CSV" : "NDJSON");
+    }
+
+    private static void writeCsv(Writer writer, OrderDto order) throws IOException {
+        writer.write(order.getId().toString());
+        writer.write(',');
+        writer.write(order.getOrderDate().toString());
+        writer.write(',');
+        writer.write(csvField(order.getStatus()));
+        writer.write(',');
+        writer.write(csvField(order.getClientEmail()));
+        writer.write(',');
+        writer.write(order.getDishIds().stream().map(UUID::toString).collect(Collectors.joining(";")));
+        writer.write('\n');
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
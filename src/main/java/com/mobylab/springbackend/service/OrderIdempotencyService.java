@@ -0,0 +1,194 @@
+package com.mobylab.springbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mobylab.springbackend.exception.BadRequestException;
+import com.mobylab.springbackend.exception.ConflictException;
+import com.mobylab.springbackend.exception.InternalServerErrorException;
+import com.mobylab.springbackend.repository.IdempotencyKeyJdbcRepository;
+import com.mobylab.springbackend.repository.IdempotencyKeyJdbcRepository.StoredResponse;
+import com.mobylab.springbackend.service.dto.OrderDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes order placement safe to retry with an {@code Idempotency-Key}. The outcome of each key
+ * is kept in a bounded in-memory cache as a future, so a repeated request is answered from
+ * memory without touching the database and a concurrent duplicate waits for the first request
+ * instead of placing a second order. The key is also written to {@code order_idempotency_key}
+ * in the same transaction as the order, which covers restarts, evicted entries and other instances.
+ * A failed placement is not remembered, so the client can retry it with the same key.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyJdbcRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<CacheKey, CompletableFuture<Entry>> entries;
+    private final long retention;
+    private final long waitTimeout;
+
+    public OrderIdempotencyService(IdempotencyKeyJdbcRepository idempotencyKeyRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${orders.idempotency.retention:86400000}") long retention,
+                                   @Value("${orders.idempotency.cache-size:10000}") long cacheSize,
+                                   @Value("${orders.idempotency.wait-timeout:10000}") long waitTimeout) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.waitTimeout = waitTimeout;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(retention))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "orderIdempotency");
+    }
+
+    /**
+     * Runs {@code placement} once per owner and key. The same key sent with different dishes
+     * or priority is rejected with a 409 rather than answered with an unrelated order.
+     *
+     * @param owner     normalized email of the client, so keys of different users never collide.
+     * @param placement places the order; runs inside the transaction that records the key.
+     */
+    public Result placeOnce(String owner, String key, List<UUID> dishIds, Integer priority, Supplier<OrderDto> placement) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+        String requestHash = hash(dishIds, priority);
+        CacheKey cacheKey = new CacheKey(owner, key);
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = entries.asMap().putIfAbsent(cacheKey, created);
+        if (existing != null) {
+            return replay(await(existing), requestHash);
+        }
+
+        Outcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> placeOrLoad(owner, key, requestHash, placement));
+        } catch (RuntimeException e) {
+            entries.asMap().remove(cacheKey, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+        created.complete(outcome.entry());
+        return outcome.placed() ? new Result(outcome.entry().order(), false) : replay(outcome.entry(), requestHash);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency.cleanup-interval:3600000}")
+    public void deleteExpired() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusNanos(retention * 1_000_000));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired order idempotency keys", deleted);
+        }
+    }
+
+    private Outcome placeOrLoad(String owner, String key, String requestHash, Supplier<OrderDto> placement) {
+        if (idempotencyKeyRepository.claim(owner, key, requestHash, LocalDateTime.now())) {
+            OrderDto order = placement.get();
+            idempotencyKeyRepository.complete(owner, key, order.getId(), write(order));
+            return new Outcome(new Entry(requestHash, order), true);
+        }
+        // Used before a restart or on another instance; the claim waited for that transaction to commit.
+        StoredResponse stored = idempotencyKeyRepository.find(owner, key)
+                .orElseThrow(() -> new ConflictException("Idempotency-Key has just expired, retry the request."));
+        return new Outcome(new Entry(stored.requestHash(), read(stored.response())), false);
+    }
+
+    private Result replay(Entry entry, String requestHash) {
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key was already used for a different order.");
+        }
+        return new Result(entry.order(), true);
+    }
+
+    private Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.get(waitTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is still being processed, retry shortly.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerErrorException("Interrupted while waiting for a duplicate order request", e);
+        } catch (ExecutionException e) {
+            // The first request failed and was not remembered; answer its duplicates the same way.
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new InternalServerErrorException("Order placement failed", e.getCause());
+        }
+    }
+
+    private String write(OrderDto order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new InternalServerErrorException("Could not serialize order response", e);
+        }
+    }
+
+    private OrderDto read(String response) {
+        try {
+            return objectMapper.readValue(response, OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new InternalServerErrorException("Could not read stored order response", e);
+        }
+    }
+
+    private static String hash(List<UUID> dishIds, Integer priority) {
+        try {
+            String request = (dishIds == null ? "" : dishIds.toString()) + "|" + priority;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @param replayed true if the order was placed by an earlier request with the same key.
+     */
+    public record Result(OrderDto order, boolean replayed) {
+    }
+
+    private record CacheKey(String owner, String key) {
+    }
+
+    private record Entry(String requestHash, OrderDto order) {
+    }
+
+    private record Outcome(Entry entry, boolean placed) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.entity.OrderStatus;
+import com.mobylab.springbackend.repository.OrderPartitionJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the monthly partitions of {@code "order"}, first at startup and then every
+ * {@code orders.partitions.maintenance-interval}: creates the partitions for the current and
+ * coming {@code orders.partitions.months-ahead} months, since there is no default partition to
+ * catch orders outside them, and moves months older than {@code orders.archive.retention-months}
+ * to {@code order_archive}. Orders there are no longer seen by the order history, search,
+ * export or kitchen queue. A month that still has orders in progress is left in place until
+ * they are finished. Each partition is handled on its own under an advisory lock, so one
+ * failure does not block the rest and instances never race each other.
+ *
+ * Archiving never holds a lock that blocks orders: the dish links are copied to
+ * {@code order_dish_archive} in batches of {@code orders.archive.batch-size} orders while the
+ * month is still live, the partition is detached concurrently, the links are then deleted from
+ * {@code order_dish} in batches and the partition is attached to {@code order_archive}. Each
+ * statement commits on its own; a run that is interrupted is picked up by the next one.
+ */
+@Service
+public class OrderPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPartitionService.class);
+
+    private static final List<String> OPEN_STATUSES = Arrays.stream(OrderStatus.values())
+            .filter(status -> !status.next().isEmpty())
+            .map(OrderStatus::name)
+            .toList();
+
+    private final OrderPartitionJdbcRepository orderPartitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final int archiveBatchSize;
+
+    public OrderPartitionService(OrderPartitionJdbcRepository orderPartitionRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${orders.partitions.months-ahead:3}") int monthsAhead,
+                                 @Value("${orders.archive.retention-months:12}") int retentionMonths,
+                                 @Value("${orders.archive.batch-size:1000}") int archiveBatchSize) {
+        this.orderPartitionRepository = orderPartitionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveBatchSize = archiveBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.partitions.maintenance-interval:86400000}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        SortedSet<YearMonth> months = orderPartitionRepository.findMonths();
+        for (YearMonth month = current; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            if (!months.contains(month)) {
+                createPartition(month);
+            }
+        }
+        for (YearMonth month : orderPartitionRepository.findDetachedMonths()) {
+            archivePartition(month, true);
+        }
+        for (YearMonth month : months.headSet(current.minusMonths(retentionMonths))) {
+            archivePartition(month, false);
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (orderPartitionRepository.tryLock() && !orderPartitionRepository.findMonths().contains(month)) {
+                    orderPartitionRepository.create(month);
+                    logger.info("Created order partition for {}", month);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to create order partition for {}", month, e);
+        }
+    }
+
+    /**
+     * @param detached the month was already detached by an earlier run that did not finish.
+     */
+    void archivePartition(YearMonth month, boolean detached) {
+        try {
+            orderPartitionRepository.withSessionLock(repository -> {
+                if (detached) {
+                    if (repository.findDetachedMonths().contains(month)) {
+                        finishArchive(repository, month);
+                    }
+                    return;
+                }
+                if (!repository.findMonths().contains(month)) {
+                    return;
+                }
+                if (repository.containsStatus(month, OPEN_STATUSES)) {
+                    logger.warn("Not archiving orders of {}, some are still in progress", month);
+                    return;
+                }
+                forEachBatch(repository, month, repository::copyDishes);
+                repository.detach(month);
+                finishArchive(repository, month);
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to archive order partition for {}", month, e);
+        }
+    }
+
+    private void finishArchive(OrderPartitionJdbcRepository repository, YearMonth month) {
+        // Also moves any link written between the copy and the detach.
+        long archived = forEachBatch(repository, month, repository::moveDishes);
+        repository.attachToArchive(month);
+        logger.info("Archived {} orders of {}", archived, month);
+    }
+
+    /**
+     * Hands the month's order ids to {@code step} batch by batch, so each statement stays short.
+     *
+     * @return the number of orders.
+     */
+    private long forEachBatch(OrderPartitionJdbcRepository repository, YearMonth month, Consumer<List<UUID>> step) {
+        long orders = 0;
+        List<UUID> batch = repository.findOrderIds(month, null, archiveBatchSize);
+        while (!batch.isEmpty()) {
+            step.accept(batch);
+            orders += batch.size();
+            if (batch.size() < archiveBatchSize) {
+                break;
+            }
+            batch = repository.findOrderIds(month, batch.get(batch.size() - 1), archiveBatchSize);
+        }
+        return orders;
+    }
+}
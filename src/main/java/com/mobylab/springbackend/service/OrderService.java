@@ -1,26 +1,47 @@
 package com.mobylab.springbackend.service;
 
+import com.mobylab.springbackend.config.security.AuthenticatedUser;
 import com.mobylab.springbackend.entity.Dish;
 import com.mobylab.springbackend.entity.Order;
+import com.mobylab.springbackend.entity.OrderStatus;
 import com.mobylab.springbackend.entity.User;
 import com.mobylab.springbackend.exception.BadRequestException;
+import com.mobylab.springbackend.exception.ConflictException;
 import com.mobylab.springbackend.repository.DishRepository;
+import com.mobylab.springbackend.repository.OrderJdbcRepository;
 import com.mobylab.springbackend.repository.OrderRepository;
 import com.mobylab.springbackend.repository.UserRepository;
+import com.mobylab.springbackend.service.dto.OrderBatchResultDto;
 import com.mobylab.springbackend.service.dto.OrderDto;
+import com.mobylab.springbackend.service.dto.OrderEventDto;
+import com.mobylab.springbackend.service.dto.OrderPageDto;
+import com.mobylab.springbackend.service.dto.OrderStatusChangeResultDto;
 // import com.mobylab.springbackend.service.mapper.OrderMapper; // REMOVED Mapper import
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList; // Added for manual list creation
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,19 +50,48 @@ public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
+    private static final int MAX_PRIORITY = 100;
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final DishRepository dishRepository;
-    private final EmailNotificationService emailNotificationService;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final MenuSnapshot menuSnapshot;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailTemplateService emailTemplateService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KitchenQueue kitchenQueue;
 
     public OrderService(OrderRepository orderRepository,
                         UserRepository userRepository,
                         DishRepository dishRepository,
-                        EmailNotificationService emailNotificationService) {
+                        OrderJdbcRepository orderJdbcRepository,
+                        MenuSnapshot menuSnapshot,
+                        EmailOutboxService emailOutboxService,
+                        EmailTemplateService emailTemplateService,
+                        PlatformTransactionManager transactionManager,
+                        ApplicationEventPublisher eventPublisher,
+                        KitchenQueue kitchenQueue,
+                        @Value("${orders.batch.max-size:200}") int maxBatchSize,
+                        @Value("${orders.search.default-limit:50}") int defaultPageSize,
+                        @Value("${orders.search.max-limit:500}") int maxPageSize) {
         this.orderRepository = orderRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.menuSnapshot = menuSnapshot;
         this.userRepository = userRepository;
         this.dishRepository = dishRepository;
-        this.emailNotificationService = emailNotificationService;
+        this.emailOutboxService = emailOutboxService;
+        this.emailTemplateService = emailTemplateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = maxBatchSize;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.eventPublisher = eventPublisher;
+        this.kitchenQueue = kitchenQueue;
     }
 
     // --- Manual Mapping Helper Methods ---
@@ -53,6 +103,7 @@ public class OrderService {
         dto.setId(order.getId());
         dto.setOrderDate(order.getOrderDate());
         dto.setStatus(order.getStatus());
+        dto.setPriority(order.getPriority());
 
         if (order.getClient() != null) {
             dto.setClientEmail(order.getClient().getEmail());
@@ -70,14 +121,6 @@ public class OrderService {
         return dto;
     }
 
-    private List<OrderDto> mapOrderListToDtoList(List<Order> orders) {
-        if (orders == null) {
-            return new ArrayList<>();
-        }
-        return orders.stream()
-                .map(this::mapOrderToDto)
-                .collect(Collectors.toList());
-    }
     // --- End Manual Mapping ---
 
 
@@ -95,33 +138,197 @@ public class OrderService {
         }
         List<Dish> dishes = dishRepository.findAllById(orderDto.getDishIds());
         if (dishes.size() != orderDto.getDishIds().size()) {
-            List<UUID> foundIds = dishes.stream().map(Dish::getId).collect(Collectors.toList());
+            Set<UUID> foundIds = dishes.stream().map(Dish::getId).collect(Collectors.toSet());
             List<UUID> missingIds = orderDto.getDishIds().stream()
                     .filter(id -> !foundIds.contains(id))
                     .collect(Collectors.toList());
             logger.error("Some dishes not found. Requested: {}, Found: {}, Missing: {}", orderDto.getDishIds(), foundIds, missingIds);
             throw new EntityNotFoundException("Could not find all dishes. Missing IDs: " + missingIds);
         }
+        int priority = checkPriority(orderDto.getPriority());
+        kitchenQueue.checkCapacity(orderDto.getDishIds());
 
         Order order = new Order();
         order.setClient(client);
         order.setDishes(dishes);
         order.setOrderDate(LocalDateTime.now());
-        order.setStatus("PLACED");
+        order.setStatus(OrderStatus.PLACED.name());
+        order.setPriority(priority);
 
         Order savedOrder = orderRepository.save(order);
         logger.info("Order {} placed successfully for user {}", savedOrder.getId(), client.getEmail());
 
+        OrderDto placed = mapOrderToDto(savedOrder);
+        orderPlaced(placed, client.getUsername());
+        return placed;
+    }
+
+    /**
+     * Placement path for an authenticated client whose id is known from the token: no user
+     * lookup, dish ids checked against the in-memory menu, and the order with its dish links
+     * written by a single statement.
+     */
+    public OrderDto placeOrder(AuthenticatedUser client, List<UUID> dishIds, Integer priority) {
+        if (dishIds == null || dishIds.isEmpty()) {
+            throw new BadRequestException("Order must contain at least one dish.");
+        }
+        if (new HashSet<>(dishIds).size() != dishIds.size()) {
+            throw new BadRequestException("Order contains the same dish more than once.");
+        }
+        List<UUID> missingIds = menuSnapshot.findUnknown(dishIds);
+        if (!missingIds.isEmpty()) {
+            logger.error("Some dishes not found. Requested: {}, Missing: {}", dishIds, missingIds);
+            throw new EntityNotFoundException("Could not find all dishes. Missing IDs: " + missingIds);
+        }
+        int checkedPriority = checkPriority(priority);
+        kitchenQueue.checkCapacity(dishIds);
+
+        OrderDto order = new OrderDto();
+        order.setId(UUID.randomUUID());
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(OrderStatus.PLACED.name());
+        order.setClientEmail(client.getUsername());
+        order.setDishIds(dishIds);
+        order.setPriority(checkedPriority);
+        orderJdbcRepository.insertWithDishes(order.getId(), client.getId(), order.getOrderDate(), order.getStatus(),
+                checkedPriority, dishIds);
+        logger.info("Order {} placed successfully for user {}", order.getId(), client.getUsername());
+
+        orderPlaced(order, client.getDisplayName());
+        return order;
+    }
+
+    /**
+     * Places many orders at once for kiosks and integrations. Users are resolved with one query
+     * and dishes against the menu snapshot, invalid items are rejected individually, and the
+     * rest are inserted in one transaction using Hibernate JDBC batching (see
+     * {@code hibernate.jdbc.batch_size}). Should that transaction fail, the items are retried one
+     * transaction each so only the offending ones are rejected.
+     * Non-admin callers can only order for themselves.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<OrderBatchResultDto> placeOrders(List<OrderDto> orders, String requesterEmail, boolean isAdmin) {
+        if (orders == null || orders.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one order.");
+        }
+        if (orders.size() > maxBatchSize) {
+            throw new BadRequestException("Batch must not contain more than " + maxBatchSize + " orders.");
+        }
+
+        Set<String> emails = new HashSet<>();
+        Set<UUID> allDishIds = new HashSet<>();
+        for (OrderDto order : orders) {
+            if (order == null) {
+                continue;
+            }
+            if (!isAdmin || order.getClientEmail() == null) {
+                order.setClientEmail(requesterEmail);
+            }
+            emails.add(User.normalizeEmail(order.getClientEmail()));
+            if (order.getDishIds() != null) {
+                allDishIds.addAll(order.getDishIds());
+            }
+        }
+        Map<String, UserRepository.UserReference> users = userRepository.findReferencesByEmailNormalizedIn(emails).stream()
+                .collect(Collectors.toMap(UserRepository.UserReference::getEmailNormalized, Function.identity()));
+        Set<UUID> unknownDishes = new HashSet<>(menuSnapshot.findUnknown(allDishIds));
+
+        OrderBatchResultDto[] results = new OrderBatchResultDto[orders.size()];
+        List<PendingOrder> pending = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            OrderDto order = orders.get(i);
+            List<UUID> dishIds = order == null ? null : order.getDishIds();
+            UserRepository.UserReference client = order == null ? null : users.get(User.normalizeEmail(order.getClientEmail()));
+            if (order == null || dishIds == null || dishIds.isEmpty()) {
+                results[i] = OrderBatchResultDto.rejected(i, "Order must contain at least one dish.");
+            } else if (new HashSet<>(dishIds).size() != dishIds.size()) {
+                results[i] = OrderBatchResultDto.rejected(i, "Order contains the same dish more than once.");
+            } else if (client == null) {
+                results[i] = OrderBatchResultDto.rejected(i, "Client user not found with email: " + order.getClientEmail());
+            } else {
+                List<UUID> missingIds = dishIds.stream().filter(unknownDishes::contains).toList();
+                Integer priority = isAdmin ? order.getPriority() : null;
+                if (!missingIds.isEmpty()) {
+                    results[i] = OrderBatchResultDto.rejected(i, "Could not find all dishes. Missing IDs: " + missingIds);
+                } else if (priority != null && (priority < 0 || priority > MAX_PRIORITY)) {
+                    results[i] = OrderBatchResultDto.rejected(i, "Priority must be between 0 and " + MAX_PRIORITY + ".");
+                } else if (!kitchenQueue.hasCapacity(dishIds)) {
+                    results[i] = OrderBatchResultDto.rejected(i, "The kitchen is at capacity, please retry shortly.");
+                } else {
+                    pending.add(new PendingOrder(i, client, dishIds, priority == null ? 0 : priority));
+                }
+            }
+        }
+
         try {
-            String subject = "Your Order Confirmation (ID: " + savedOrder.getId() + ")";
-            String body = "Dear " + client.getUsername() + ",\n\nYour order has been placed successfully and is now being processed.\n\nOrder ID: " + savedOrder.getId() + "\nStatus: " + savedOrder.getStatus() + "\n\nThank you for your order!";
-            emailNotificationService.sendOrderConfirmation(client.getEmail(), subject, body);
-            logger.info("Order confirmation email sent to {}", client.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send order confirmation email to {}: {}", client.getEmail(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> insertOrders(pending, results));
+        } catch (RuntimeException e) {
+            logger.warn("Batch insert of {} orders failed, retrying them one by one: {}", pending.size(), e.getMessage());
+            for (PendingOrder order : pending) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertOrders(List.of(order), results));
+                } catch (RuntimeException itemFailure) {
+                    results[order.index()] = OrderBatchResultDto.rejected(order.index(), "Order could not be saved.");
+                }
+            }
         }
+        logger.info("Placed {} of {} orders from a batch", pending.size(), orders.size());
+        return Arrays.asList(results);
+    }
 
-        return mapOrderToDto(savedOrder);
+    private void insertOrders(List<PendingOrder> pending, OrderBatchResultDto[] results) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> saved = new ArrayList<>(pending.size());
+        for (PendingOrder pendingOrder : pending) {
+            Order order = new Order();
+            order.setClient(userRepository.getReferenceById(pendingOrder.client().getId()));
+            order.setDishes(pendingOrder.dishIds().stream().map(dishRepository::getReferenceById).collect(Collectors.toList()));
+            order.setOrderDate(now);
+            order.setStatus(OrderStatus.PLACED.name());
+            order.setPriority(pendingOrder.priority());
+            saved.add(orderRepository.save(order));
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            PendingOrder pendingOrder = pending.get(i);
+            Order order = saved.get(i);
+            OrderDto dto = new OrderDto();
+            dto.setId(order.getId());
+            dto.setOrderDate(order.getOrderDate());
+            dto.setStatus(order.getStatus());
+            dto.setClientEmail(pendingOrder.client().getEmail());
+            dto.setDishIds(pendingOrder.dishIds());
+            dto.setPriority(order.getPriority());
+            orderPlaced(dto, pendingOrder.client().getUsername());
+            results[pendingOrder.index()] = OrderBatchResultDto.created(pendingOrder.index(), dto);
+        }
+    }
+
+    private record PendingOrder(int index, UserRepository.UserReference client, List<UUID> dishIds, int priority) {
+    }
+
+    private static int checkPriority(Integer priority) {
+        if (priority == null) {
+            return 0;
+        }
+        if (priority < 0 || priority > MAX_PRIORITY) {
+            throw new BadRequestException("Priority must be between 0 and " + MAX_PRIORITY + ".");
+        }
+        return priority;
+    }
+
+    // The email is sent by EmailOutboxDispatcher and the event pushed by OrderEventHub, both only
+    // once the surrounding transaction commits.
+    private void orderPlaced(OrderDto order, String username) {
+        String email = order.getClientEmail();
+        UUID orderId = order.getId();
+        String status = order.getStatus();
+        eventPublisher.publishEvent(OrderEventDto.placed(orderId, status, email, order.getOrderDate(), order.getPriority(), order.getDishIds()));
+        EmailTemplateService.RenderedEmail confirmation = emailTemplateService.render("order-confirmation", Map.of(
+                "username", username != null ? username : email,
+                "orderId", orderId,
+                "status", status));
+        emailOutboxService.enqueue(email, confirmation.subject(), confirmation.body());
+        logger.debug("Order confirmation email queued for {}", email);
     }
 
     @Transactional(readOnly = true)
@@ -149,31 +356,128 @@ public class OrderService {
         return mapOrderToDto(order);
     }
 
+    /**
+     * One page of the admin order search, newest first. The cursor encodes the
+     * (order_date, id) of the last order of the previous page.
+     */
     @Transactional(readOnly = true)
-    public List<OrderDto> getAllOrders() {
-        logger.debug("Fetching all orders (ADMIN operation)");
-        List<Order> orders = orderRepository.findAll();
-        return mapOrderListToDtoList(orders);
+    public OrderPageDto searchOrders(String status, LocalDateTime from, LocalDateTime to, String userEmail,
+                                     String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize + ".");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'.");
+        }
+        LocalDateTime afterDate = null;
+        UUID afterId = null;
+        if (cursor != null) {
+            try {
+                String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                afterDate = LocalDateTime.parse(position[0]);
+                afterId = UUID.fromString(position[1]);
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+        }
+        logger.debug("Searching orders status={} from={} to={} user={} after={}/{}", status, from, to, userEmail, afterDate, afterId);
+
+        // One extra row tells whether another page exists without a count query.
+        List<OrderDto> orders = orderJdbcRepository.search(status, from, to, userEmail, afterDate, afterId, pageSize + 1);
+        OrderPageDto page = new OrderPageDto();
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderDto last = orders.get(pageSize - 1);
+            page.setNextCursor(Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getOrderDate() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8)));
+        }
+        return page.setItems(orders);
     }
 
     @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByUserEmail(String email) {
         logger.debug("Fetching orders for user email: {}", email);
-        User client = userRepository.findUserByEmail(email)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with email: " + email));
-        List<Order> orders = orderRepository.findByClient(client);
-        return mapOrderListToDtoList(orders);
+        List<OrderDto> orders = orderJdbcRepository.findDtosByClientEmail(email);
+        // Only an empty result needs the extra query to tell "no orders" from "no such user".
+        if (orders.isEmpty() && !userRepository.existsUserByEmail(email)) {
+            throw new EntityNotFoundException("User not found with email: " + email);
+        }
+        return orders;
     }
 
+    /**
+     * Moves one order to {@code newStatus} if the transition is allowed from its current status.
+     * The check and the write are one conditional UPDATE, so a concurrent change cannot be lost.
+     */
     public OrderDto updateOrderStatus(UUID id, String newStatus) {
         logger.info("Attempting to update status for order {} to {}", id, newStatus);
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Order not found with ID: " + id));
+        OrderStatusChangeResultDto result = changeStatus(List.of(id), null, newStatus);
+        if (!result.getNotFound().isEmpty()) {
+            throw new EntityNotFoundException("Order not found with ID: " + id);
+        }
+        if (!result.getConflicts().isEmpty()) {
+            throw new ConflictException("Order " + id + " is " + result.getConflicts().get(0).currentStatus()
+                    + " and cannot move to " + result.getStatus() + ".");
+        }
+        logger.info("Successfully updated status for order {} to {}", id, result.getStatus());
+        return mapOrderToDto(orderRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Order not found with ID: " + id)));
+    }
+
+    /**
+     * Moves many orders to {@code to} with one conditional UPDATE. Orders that were not in an
+     * allowed (or the given {@code from}) status when it ran are reported back as conflicts with
+     * their current status, instead of failing the whole call.
+     */
+    public OrderStatusChangeResultDto changeStatus(List<UUID> orderIds, String from, String to) {
+        OrderStatus target = OrderStatus.parse(to);
+        if (target == null) {
+            throw new BadRequestException("Unknown order status: " + to);
+        }
+        Set<OrderStatus> sources;
+        if (from == null) {
+            sources = OrderStatus.sourcesOf(target);
+        } else {
+            OrderStatus expected = OrderStatus.parse(from);
+            if (expected == null) {
+                throw new BadRequestException("Unknown order status: " + from);
+            }
+            if (!expected.canMoveTo(target)) {
+                throw new BadRequestException("Orders cannot move from " + expected + " to " + target + ".");
+            }
+            sources = Set.of(expected);
+        }
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new BadRequestException("At least one order id is required.");
+        }
+        Set<UUID> ids = new LinkedHashSet<>(orderIds);
+        if (ids.size() > maxBatchSize) {
+            throw new BadRequestException("Cannot change more than " + maxBatchSize + " orders at once.");
+        }
 
-        order.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
-        logger.info("Successfully updated status for order {} to {}", id, newStatus);
+        Map<UUID, String> updated = sources.isEmpty() ? Map.of() : orderJdbcRepository.updateStatus(
+                ids, sources.stream().map(OrderStatus::name).toList(), target.name());
+        updated.forEach((id, clientEmail) -> eventPublisher.publishEvent(OrderEventDto.statusChanged(id, target.name(), clientEmail)));
+        List<UUID> rest = ids.stream().filter(id -> !updated.containsKey(id)).toList();
+        Map<UUID, String> current = rest.isEmpty() ? Map.of() : orderJdbcRepository.findStatuses(rest);
 
-        return mapOrderToDto(updatedOrder);
+        List<OrderStatusChangeResultDto.Conflict> conflicts = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID id : rest) {
+            String status = current.get(id);
+            if (status == null) {
+                notFound.add(id);
+            } else {
+                conflicts.add(new OrderStatusChangeResultDto.Conflict(id, status));
+            }
+        }
+        logger.info("Moved {} of {} orders to {} ({} conflicts, {} not found)",
+                updated.size(), ids.size(), target, conflicts.size(), notFound.size());
+        return new OrderStatusChangeResultDto()
+                .setStatus(target.name())
+                .setUpdated(new ArrayList<>(updated.keySet()))
+                .setConflicts(conflicts)
+                .setNotFound(notFound);
     }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.config.security.SecurityStampService;
+import com.mobylab.springbackend.entity.RefreshToken;
+import com.mobylab.springbackend.entity.User;
+import com.mobylab.springbackend.exception.BadRequestException;
+import com.mobylab.springbackend.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, single-use refresh tokens. Every refresh rotates the token; presenting a token
+ * that was already rotated means it leaked, so its whole family is revoked together with
+ * the access tokens of the user (via the security stamp).
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecurityStampService securityStampService;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final long refreshTtl;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               SecurityStampService securityStampService,
+                               @Value("${token.refresh.ttl}") long refreshTtl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.securityStampService = securityStampService;
+        this.refreshTtl = refreshTtl;
+    }
+
+    public long getRefreshTtl() {
+        return refreshTtl;
+    }
+
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    /**
+     * Consumes the presented token and returns the owning user together with its replacement.
+     * Runs without rollback on rejection so a detected reuse still revokes the family.
+     */
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public Rotation rotate(String presentedToken) {
+        RefreshToken current = refreshTokenRepository.findForUpdate(hash(presentedToken))
+                .orElseThrow(() -> new BadRequestException("Invalid refresh token"));
+
+        if (current.isUsed()) {
+            User user = current.getUser();
+            logger.warn("Refresh token reuse detected for user {}, revoking token family {}", user.getEmail(), current.getFamilyId());
+            refreshTokenRepository.deleteFamily(current.getFamilyId());
+            securityStampService.rotateStamp(user.getEmail());
+            throw new BadRequestException("Invalid refresh token");
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Refresh token expired");
+        }
+
+        current.setUsed(true);
+        String replacement = issue(current.getUser(), current.getFamilyId());
+        return new Rotation(current.getUser(), replacement);
+    }
+
+    public void revoke(String presentedToken) {
+        refreshTokenRepository.findForUpdate(hash(presentedToken))
+                .ifPresent(token -> refreshTokenRepository.deleteFamily(token.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${token.refresh.cleanup-interval:3600000}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(User user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken()
+                .setTokenHash(hash(token))
+                .setFamilyId(familyId)
+                .setUser(user)
+                .setExpiresAt(LocalDateTime.now().plusNanos(refreshTtl * 1_000_000)));
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static final class Rotation {
+        private final User user;
+        private final String refreshToken;
+
+        private Rotation(User user, String refreshToken) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
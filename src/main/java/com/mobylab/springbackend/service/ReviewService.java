@@ -16,7 +16,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -60,12 +59,18 @@ public class ReviewService {
         return dto;
     }
 
-    private List<ReviewDto> mapReviewListToDtoList(List<Review> reviews) {
-        if (reviews == null) {
-            return new ArrayList<>();
-        }
+    private List<ReviewDto> mapReviewViewsToDtoList(List<ReviewRepository.ReviewView> reviews) {
         return reviews.stream()
-                .map(this::mapReviewToDto)
+                .map(review -> {
+                    ReviewDto dto = new ReviewDto();
+                    dto.setId(review.getId());
+                    dto.setRating(review.getRating());
+                    dto.setComment(review.getComment());
+                    dto.setReviewDate(review.getReviewDate());
+                    dto.setReviewerEmail(review.getReviewerEmail());
+                    dto.setDishId(review.getDishId());
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
     // --- End Manual Mapping ---
@@ -98,17 +103,17 @@ public class ReviewService {
         if (!dishRepository.existsById(dishId)) {
             throw new EntityNotFoundException("Dish not found with ID: " + dishId);
         }
-        List<Review> reviews = reviewRepository.findByDishId(dishId);
-        return mapReviewListToDtoList(reviews); // Use manual mapping
+        return mapReviewViewsToDtoList(reviewRepository.findViewsByDishId(dishId));
     }
 
     @Transactional(readOnly = true)
     public List<ReviewDto> getReviewsByUserEmail(String email) {
         logger.debug("Fetching reviews by user email: {}", email);
-        User reviewer = userRepository.findUserByEmail(email)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with email: " + email));
-        List<Review> reviews = reviewRepository.findByReviewer(reviewer);
-        return mapReviewListToDtoList(reviews); // Use manual mapping
+        List<ReviewRepository.ReviewView> reviews = reviewRepository.findViewsByReviewerEmail(email);
+        if (reviews.isEmpty() && !userRepository.existsUserByEmail(email)) {
+            throw new EntityNotFoundException("User not found with email: " + email);
+        }
+        return mapReviewViewsToDtoList(reviews);
     }
 
     public boolean deleteReviewIfAllowed(UUID reviewId, String requesterEmail, Collection<? extends GrantedAuthority> authorities) {
@@ -1,11 +1,13 @@
 package com.mobylab.springbackend.service;
 
+import com.mobylab.springbackend.config.CacheConfiguration;
 import com.mobylab.springbackend.entity.Role;
 import com.mobylab.springbackend.exception.BadRequestException;
 import com.mobylab.springbackend.repository.RoleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +22,7 @@ public class RoleService {
 
     private static final Logger logger = LoggerFactory.getLogger(RoleService.class);
 
+    @CacheEvict(cacheNames = CacheConfiguration.ROLES_CACHE, allEntries = true)
     public List<String> addRoles(List<String> roleNameList) {
         if (roleNameList.isEmpty()) {
             logger.info("Role list shouldn't be empty");
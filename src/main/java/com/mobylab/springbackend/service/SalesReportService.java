@@ -0,0 +1,160 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.entity.OrderStatus;
+import com.mobylab.springbackend.exception.BadRequestException;
+import com.mobylab.springbackend.repository.SalesRollupJdbcRepository;
+import com.mobylab.springbackend.service.dto.DishSalesDto;
+import com.mobylab.springbackend.service.dto.OrderEventDto;
+import com.mobylab.springbackend.service.dto.SalesPeriodDto;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Sales reports served from the {@code sales_daily_dish} rollup instead of the order history.
+ * The rollup is updated in the transaction that places or cancels the orders: the order events
+ * of a transaction are collected and written just before it commits, one statement for all
+ * placements and one for all cancellations, so a batch costs the same as a single order.
+ * Both statements read the orders back from the database, so orders saved through JPA are
+ * flushed first.
+ */
+@Service
+public class SalesReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesReportService.class);
+
+    private static final int DEFAULT_DAYS = 30;
+
+    private final SalesRollupJdbcRepository salesRollupRepository;
+    private final EntityManager entityManager;
+    private final int maxTopDishes;
+
+    public SalesReportService(SalesRollupJdbcRepository salesRollupRepository,
+                              EntityManager entityManager,
+                              @Value("${reports.sales.max-top-dishes:100}") int maxTopDishes) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.entityManager = entityManager;
+        this.maxTopDishes = maxTopDishes;
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEventDto event) {
+        boolean placed = OrderEventDto.PLACED.equals(event.getType());
+        if (!placed && !OrderStatus.CANCELLED.name().equals(event.getStatus())) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingSales pending = new PendingSales();
+            pending.add(event, placed);
+            write(pending, false);
+            return;
+        }
+        PendingSales pending = (PendingSales) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingSales();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            PendingSales registered = pending;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(registered, true);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SalesReportService.this);
+                }
+            });
+        }
+        pending.add(event, placed);
+    }
+
+    /**
+     * @return the dishes ordered most between {@code from} and {@code to} (inclusive), last 30 days by default.
+     */
+    @Transactional(readOnly = true)
+    public List<DishSalesDto> getTopDishes(LocalDate from, LocalDate to, int limit) {
+        if (limit < 1 || limit > maxTopDishes) {
+            throw new BadRequestException("limit must be between 1 and " + maxTopDishes + ".");
+        }
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_DAYS - 1) : from;
+        checkRange(start, end);
+        return salesRollupRepository.findTopDishes(start, end, limit);
+    }
+
+    /**
+     * @param granularity "day" or "week"; weeks start on Monday.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesPeriodDto> getRevenue(LocalDate from, LocalDate to, String granularity) {
+        boolean weekly = switch (granularity.toLowerCase(Locale.ROOT)) {
+            case "day" -> false;
+            case "week" -> true;
+            default -> throw new BadRequestException("granularity must be day or week.");
+        };
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_DAYS - 1) : from;
+        checkRange(start, end);
+        return salesRollupRepository.findRevenue(start, end, weekly);
+    }
+
+    /**
+     * Recomputes the rollup from the order history, e.g. after a manual data
+     * change. Both bounds are optional; without them the whole rollup is rebuilt.
+     *
+     * @return the number of rollup rows written.
+     */
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        if (from != null && to != null) {
+            checkRange(from, to);
+        }
+        int rows = salesRollupRepository.rebuild(from, to);
+        logger.info("Rebuilt {} sales rollup rows from {} to {}", rows, from, to);
+        return rows;
+    }
+
+    private void write(PendingSales pending, boolean inTransaction) {
+        if (inTransaction) {
+            entityManager.flush();
+        }
+        if (!pending.placedOrderIds.isEmpty()) {
+            salesRollupRepository.addPlaced(pending.placedOrderIds);
+        }
+        if (!pending.cancelledOrderIds.isEmpty()) {
+            salesRollupRepository.removeCancelled(pending.cancelledOrderIds);
+        }
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to.");
+        }
+    }
+
+    private static final class PendingSales {
+        private final List<UUID> placedOrderIds = new ArrayList<>();
+        private final List<UUID> cancelledOrderIds = new ArrayList<>();
+
+        void add(OrderEventDto event, boolean placed) {
+            if (placed) {
+                placedOrderIds.add(event.getOrderId());
+            } else {
+                cancelledOrderIds.add(event.getOrderId());
+            }
+        }
+    }
+}
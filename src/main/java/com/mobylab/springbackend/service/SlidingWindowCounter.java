@@ -0,0 +1,67 @@
+package com.mobylab.springbackend.service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts events over the last few minutes with a ring of per-minute {@link LongAdder} buckets.
+ * Recording is a volatile read and a {@code LongAdder} increment, so concurrent writers do not
+ * contend on a shared counter; the only allocation is one bucket per minute, installed with a
+ * compare-and-set by whichever writer first sees the minute change. A writer that read the
+ * previous bucket just before it was replaced may add its event to that minute instead, which
+ * is negligible for a popularity window.
+ */
+public class SlidingWindowCounter {
+
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * @param minutes the longest window {@link #sum(long, int)} can be asked for.
+     */
+    public SlidingWindowCounter(int minutes) {
+        this.buckets = new AtomicReferenceArray<>(minutes);
+    }
+
+    public static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    public void increment(long minute) {
+        int index = (int) (minute % buckets.length());
+        Bucket bucket = buckets.get(index);
+        while (bucket == null || bucket.minute < minute) {
+            Bucket fresh = new Bucket(minute);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = buckets.get(index);
+            }
+        }
+        if (bucket.minute == minute) {
+            bucket.count.increment();
+        }
+    }
+
+    /**
+     * @return the events of {@code minute} and the {@code window - 1} minutes before it.
+     */
+    public long sum(long minute, int window) {
+        long total = 0;
+        for (long m = minute; m > minute - Math.min(window, buckets.length()); m--) {
+            Bucket bucket = buckets.get((int) (m % buckets.length()));
+            if (bucket != null && bucket.minute == m) {
+                total += bucket.count.sum();
+            }
+        }
+        return total;
+    }
+
+    private static final class Bucket {
+        private final long minute;
+        private final LongAdder count = new LongAdder();
+
+        private Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.mobylab.springbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Keeps up to {@code mail.pool.size} connected and authenticated SMTP transports, so the
+ * TCP, STARTTLS and AUTH handshakes are paid once per connection instead of once per message.
+ * A batch is split across the connections and each slice is sent back to back over its own
+ * connection. Connections idle for longer than {@code mail.pool.max-idle} are replaced, since
+ * servers drop them, and a connection that fails mid-batch is reopened once.
+ */
+@Component
+public class SmtpConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final int size;
+    private final long maxIdle;
+    private final long borrowTimeout;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledTransport> idle;
+    private final ExecutorService executor;
+
+    public SmtpConnectionPool(JavaMailSenderImpl mailSender,
+                              @Value("${mail.pool.size:2}") int size,
+                              @Value("${mail.pool.max-idle:60000}") long maxIdle,
+                              @Value("${mail.pool.borrow-timeout:30000}") long borrowTimeout) {
+        this.mailSender = mailSender;
+        this.size = size;
+        this.maxIdle = maxIdle;
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(size);
+        this.idle = new ArrayBlockingQueue<>(size);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "smtp-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Sends every message, in parallel over up to {@code mail.pool.size} connections.
+     *
+     * @return one entry per message: null when it was accepted, otherwise the reason it was not
+     */
+    public List<Exception> sendAll(List<MimeMessage> messages) {
+        return sendAll(messages, index -> true, index -> {
+        });
+    }
+
+    /**
+     * Like {@link #sendAll(List)}, but calls back on the sending thread with the index of a
+     * message: {@code beforeSend} right before every attempt to send it, and {@code accepted}
+     * as soon as the server took it. A message {@code beforeSend} turns down is not sent and is
+     * reported with a {@link CancellationException}.
+     */
+    public List<Exception> sendAll(List<MimeMessage> messages, IntPredicate beforeSend, IntConsumer accepted) {
+        Exception[] failures = new Exception[messages.size()];
+        int slices = Math.min(size, messages.size());
+        List<Future<?>> futures = new ArrayList<>(slices);
+        for (int slice = 0; slice < slices; slice++) {
+            int first = slice;
+            futures.add(executor.submit(() -> sendSlice(messages, first, slices, beforeSend, accepted, failures)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MailSendException("Interrupted while sending mail", e);
+            } catch (ExecutionException e) {
+                throw new MailSendException("Sending mail failed", e.getCause());
+            }
+        }
+        return Arrays.asList(failures);
+    }
+
+    private void sendSlice(List<MimeMessage> messages, int first, int step, IntPredicate beforeSend,
+                           IntConsumer accepted, Exception[] failures) {
+        PooledTransport transport;
+        try {
+            transport = borrow();
+        } catch (MessagingException | RuntimeException e) {
+            failRemaining(failures, first, step, e);
+            return;
+        }
+        try {
+            for (int i = first; i < messages.size(); i += step) {
+                MimeMessage message = messages.get(i);
+                if (!beforeSend.test(i)) {
+                    failures[i] = new CancellationException("Not sent, turned down before sending");
+                    continue;
+                }
+                try {
+                    transport.send(message);
+                } catch (SendFailedException e) {
+                    // Rejected by the server, the connection itself is still fine.
+                    failures[i] = e;
+                } catch (MessagingException e) {
+                    logger.debug("SMTP connection failed, reconnecting: {}", e.getMessage());
+                    try {
+                        transport.connect();
+                        if (!beforeSend.test(i)) {
+                            failures[i] = new CancellationException("Not resent, turned down before sending");
+                            continue;
+                        }
+                        transport.send(message);
+                    } catch (MessagingException retryFailure) {
+                        failures[i] = retryFailure;
+                        if (!transport.healthy) {
+                            failRemaining(failures, i + step, step, retryFailure);
+                            return;
+                        }
+                    }
+                }
+                if (failures[i] == null) {
+                    accepted.accept(i);
+                }
+            }
+        } finally {
+            release(transport);
+        }
+    }
+
+    private static void failRemaining(Exception[] failures, int first, int step, Exception cause) {
+        for (int i = first; i < failures.length; i += step) {
+            failures[i] = cause;
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            PooledTransport transport = idle.poll();
+            if (transport != null && System.currentTimeMillis() - transport.lastUsed > maxIdle) {
+                transport.close();
+                transport = null;
+            }
+            if (transport == null) {
+                transport = new PooledTransport();
+                transport.connect();
+            }
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport transport) {
+        if (transport.healthy) {
+            transport.lastUsed = System.currentTimeMillis();
+            idle.offer(transport);
+        } else {
+            transport.close();
+        }
+        permits.release();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+        PooledTransport transport;
+        while ((transport = idle.poll()) != null) {
+            transport.close();
+        }
+    }
+
+    /**
+     * Health is tracked from the outcome of our own commands rather than with
+     * {@link Transport#isConnected()}, which costs a NOOP round trip per call.
+     */
+    private final class PooledTransport {
+        private Transport transport;
+        private boolean healthy;
+        private long lastUsed = System.currentTimeMillis();
+
+        void connect() throws MessagingException {
+            close();
+            transport = mailSender.getSession().getTransport(
+                    mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+            transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            healthy = true;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            // Transport#sendMessage, unlike the static Transport#send, does not update the headers itself.
+            message.saveChanges();
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (SendFailedException e) {
+                throw e;
+            } catch (MessagingException | IllegalStateException e) {
+                healthy = false;
+                throw e instanceof MessagingException messagingException
+                        ? messagingException : new MessagingException(e.getMessage(), e);
+            }
+        }
+
+        void close() {
+            healthy = false;
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                logger.debug("Failed to close SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.exception.BadRequestException;
+import com.mobylab.springbackend.service.dto.OrderEventDto;
+import com.mobylab.springbackend.service.dto.TrendingDishDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live dish popularity for the front-of-house screen, kept in memory on each instance: every
+ * committed order adds one to a {@link SlidingWindowCounter} per dish. Reads never touch the
+ * database. The counters start empty on startup and hold one entry per dish ever ordered, so
+ * memory is bounded by the menu. Cancelled orders still count, as they still show interest.
+ */
+@Service
+public class TrendingDishService {
+
+    public static final int MAX_WINDOW_MINUTES = 60;
+
+    private final MenuSnapshot menuSnapshot;
+    private final int maxLimit;
+    private final Map<UUID, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+
+    public TrendingDishService(MenuSnapshot menuSnapshot,
+                               @Value("${dishes.trending.max-limit:50}") int maxLimit) {
+        this.menuSnapshot = menuSnapshot;
+        this.maxLimit = maxLimit;
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEventDto event) {
+        if (!OrderEventDto.PLACED.equals(event.getType())) {
+            return;
+        }
+        long minute = SlidingWindowCounter.currentMinute();
+        for (UUID dishId : event.getDishIds()) {
+            counters.computeIfAbsent(dishId, id -> new SlidingWindowCounter(MAX_WINDOW_MINUTES)).increment(minute);
+        }
+    }
+
+    /**
+     * @param windowMinutes the current minute and the ones before it, up to {@value #MAX_WINDOW_MINUTES}.
+     * @return the {@code limit} dishes ordered most in the window, most ordered first.
+     */
+    public List<TrendingDishDto> getTrending(int windowMinutes, int limit) {
+        if (windowMinutes < 1 || windowMinutes > MAX_WINDOW_MINUTES) {
+            throw new BadRequestException("window must be between 1 and " + MAX_WINDOW_MINUTES + " minutes.");
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequestException("limit must be between 1 and " + maxLimit + ".");
+        }
+        long minute = SlidingWindowCounter.currentMinute();
+        List<TrendingDishDto> trending = new ArrayList<>();
+        counters.forEach((dishId, counter) -> {
+            long orders = counter.sum(minute, windowMinutes);
+            if (orders > 0) {
+                trending.add(new TrendingDishDto().setDishId(dishId).setOrders(orders));
+            }
+        });
+        trending.sort(Comparator.comparingLong(TrendingDishDto::getOrders).reversed());
+        List<TrendingDishDto> top = trending.subList(0, Math.min(limit, trending.size()));
+        top.forEach(dish -> dish.setName(menuSnapshot.nameOf(dish.getDishId())));
+        return top;
+    }
+}
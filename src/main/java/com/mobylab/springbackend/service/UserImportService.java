@@ -0,0 +1,356 @@
+package com.mobylab.springbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobylab.springbackend.config.security.BoundedPasswordEncoder;
+import com.mobylab.springbackend.entity.Role;
+import com.mobylab.springbackend.entity.User;
+import com.mobylab.springbackend.exception.BadRequestException;
+import com.mobylab.springbackend.repository.RoleRepository;
+import com.mobylab.springbackend.service.dto.UserImportEventDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Imports users from a CSV or NDJSON upload. The input is read line by line and handled in
+ * chunks of {@code users.import.chunk-size} rows: duplicate emails are found with one query per
+ * chunk, passwords are hashed in parallel on the password hashing pool and the rows are written
+ * with JDBC batch inserts in one transaction per chunk. Errors and progress are written to the
+ * output as NDJSON as soon as each chunk is done, so neither side holds the whole file.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final String DEFAULT_ROLE = "USER";
+    private static final List<String> CSV_COLUMNS = List.of("email", "username", "password", "roles");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RoleRepository roleRepository;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder,
+                             RoleRepository roleRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${users.import.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.roleRepository = roleRepository;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public static boolean isSupported(String contentType) {
+        return contentType != null && (contentType.startsWith(CSV) || contentType.startsWith(NDJSON));
+    }
+
+    /**
+     * Opens an upload for {@link #importUsers(ImportSource, OutputStream)}. For a CSV the header is
+     * read and checked here, so a bad one is answered with a 400 before the response has started.
+     */
+    public ImportSource open(InputStream input, String contentType) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        if (!contentType.startsWith(CSV)) {
+            return new ImportSource(reader, null, 0);
+        }
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                return new ImportSource(reader, parseCsvHeader(line), lineNumber);
+            }
+        }
+        throw new BadRequestException("CSV header must contain the email and password columns");
+    }
+
+    public void importUsers(ImportSource source, OutputStream output) throws IOException {
+        BufferedReader reader = source.reader();
+        int[] columns = source.csvColumns();
+        Progress progress = new Progress(output);
+
+        long lineNumber = source.linesRead();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(columns != null ? parseCsvRow(lineNumber, line, columns) : parseJsonRow(lineNumber, line));
+            } catch (BadRequestException e) {
+                progress.error(lineNumber, null, e.getMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+        progress.summary();
+        logger.info("Imported {} users, {} rows rejected", progress.imported, progress.failed);
+    }
+
+    private void importChunk(List<ImportRow> chunk, Progress progress) throws IOException {
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : chunk) {
+            if (!emails.add(User.normalizeEmail(row.email))) {
+                progress.error(row.line, row.email, "Duplicate email in upload");
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            progress.flush();
+            return;
+        }
+        Set<String> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT email_normalized FROM project.users WHERE email_normalized IN (:emails)",
+                new MapSqlParameterSource("emails", emails), String.class));
+        Map<String, Integer> roleIds = new HashMap<>();
+        List<ImportRow> rows = new ArrayList<>(accepted.size());
+        for (ImportRow row : accepted) {
+            if (existing.contains(User.normalizeEmail(row.email))) {
+                progress.error(row.line, row.email, "Email is already used");
+                continue;
+            }
+            String unknownRole = resolveRoles(row, roleIds);
+            if (unknownRole != null) {
+                progress.error(row.line, row.email, "Unknown role " + unknownRole);
+                continue;
+            }
+            rows.add(row);
+        }
+
+        if (rows.isEmpty()) {
+            progress.flush();
+            return;
+        }
+        List<String> hashes = encodeAll(rows.stream().map(row -> row.password).toList());
+        List<Object[]> users = new ArrayList<>(rows.size());
+        List<Object[]> userRoles = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            UUID id = UUID.randomUUID();
+            users.add(new Object[]{id, row.username, row.email, hashes.get(i), UUID.randomUUID()});
+            for (String role : row.roles) {
+                userRoles.add(new Object[]{id, roleIds.get(role)});
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO project.users (id, username, email, password, security_stamp) VALUES (?, ?, ?, ?, ?)", users);
+                jdbcTemplate.batchUpdate("INSERT INTO project.user_role (user_id, role_id) VALUES (?, ?)", userRoles);
+            });
+            progress.imported += rows.size();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to insert import chunk of {} users", rows.size(), e);
+            for (ImportRow row : rows) {
+                progress.error(row.line, row.email, "Chunk could not be inserted, retry the row");
+            }
+        }
+        progress.flush();
+    }
+
+    private List<String> encodeAll(List<String> passwords) {
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedPasswordEncoder) {
+            return boundedPasswordEncoder.encodeAll(passwords);
+        }
+        return passwords.stream().map(passwordEncoder::encode).toList();
+    }
+
+    private String resolveRoles(ImportRow row, Map<String, Integer> roleIds) {
+        for (String role : row.roles) {
+            if (!roleIds.containsKey(role)) {
+                Optional<Role> found = roleRepository.findRoleByName(role);
+                if (found.isEmpty()) {
+                    return role;
+                }
+                roleIds.put(role, found.get().getId());
+            }
+        }
+        return null;
+    }
+
+    private ImportRow parseJsonRow(long line, String json) {
+        JsonRow row;
+        try {
+            row = objectMapper.readValue(json, JsonRow.class);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed JSON");
+        }
+        return ImportRow.of(line, row.email(), row.username(), row.password(), row.roles());
+    }
+
+    private static int[] parseCsvHeader(String header) {
+        List<String> names = parseCsvLine(header).stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+        }
+        if (columns[0] < 0 || columns[2] < 0) {
+            throw new BadRequestException("CSV header must contain the email and password columns");
+        }
+        return columns;
+    }
+
+    private static ImportRow parseCsvRow(long line, String text, int[] columns) {
+        List<String> values = parseCsvLine(text);
+        String roles = column(values, columns[3]);
+        return ImportRow.of(line, column(values, columns[0]), column(values, columns[1]), column(values, columns[2]),
+                roles == null || roles.isBlank() ? null : Arrays.asList(roles.split(";")));
+    }
+
+    private static String column(List<String> values, int index) {
+        return index >= 0 && index < values.size() ? values.get(index) : null;
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields with {@code ""} escapes.
+     * Records spanning several lines are not supported.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * An upload positioned at its first data line; {@code csvColumns} is null for NDJSON.
+     */
+    public record ImportSource(BufferedReader reader, int[] csvColumns, long linesRead) {
+    }
+
+    private record JsonRow(String email, String username, String password, List<String> roles) {
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private final String email;
+        private final String username;
+        private final String password;
+        private final List<String> roles;
+
+        private ImportRow(long line, String email, String username, String password, List<String> roles) {
+            this.line = line;
+            this.email = email;
+            this.username = username;
+            this.password = password;
+            this.roles = roles;
+        }
+
+        static ImportRow of(long line, String email, String username, String password, List<String> roles) {
+            if (email == null || email.isBlank() || !email.contains("@") || email.chars().anyMatch(Character::isISOControl)) {
+                throw new BadRequestException("A valid email is required");
+            }
+            if (password == null || password.isEmpty()) {
+                throw new BadRequestException("Password is required");
+            }
+            List<String> roleNames = roles == null ? List.of() : roles.stream()
+                    .map(String::trim)
+                    .filter(role -> !role.isEmpty())
+                    .distinct()
+                    .toList();
+            return new ImportRow(line, email.trim(), username, password,
+                    roleNames.isEmpty() ? List.of(DEFAULT_ROLE) : roleNames);
+        }
+    }
+
+    private final class Progress {
+        private final OutputStream output;
+        private long imported;
+        private long failed;
+
+        private Progress(OutputStream output) {
+            this.output = output;
+        }
+
+        void error(long line, String email, String message) throws IOException {
+            failed++;
+            write(UserImportEventDto.error(line, email, message));
+        }
+
+        void flush() throws IOException {
+            write(UserImportEventDto.progress(imported + failed, imported, failed));
+            output.flush();
+        }
+
+        void summary() throws IOException {
+            write(UserImportEventDto.summary(imported + failed, imported, failed));
+            output.flush();
+        }
+
+        private void write(UserImportEventDto event) throws IOException {
+            output.write(objectMapper.writeValueAsBytes(event));
+            output.write('\n');
+        }
+    }
+}
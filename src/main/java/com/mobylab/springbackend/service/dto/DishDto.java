@@ -7,6 +7,7 @@ public class DishDto {
     private String name;
     private String description;
     private Double price;
+    private String station;
 
     public UUID getId() {
         return id;
@@ -24,6 +25,10 @@ public class DishDto {
         return price;
     }
 
+    public String getStation() {
+        return station;
+    }
+
     public void setId(UUID id) {
         this.id = id;
     }
@@ -41,4 +46,8 @@ public class DishDto {
     }
 
     // Getters & Setters
+
+    public void setStation(String station) {
+        this.station = station;
+    }
 }
@@ -0,0 +1,51 @@
+package com.mobylab.springbackend.service.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Sales of one dish over a reporting range.
+ */
+public class DishSalesDto {
+
+    private UUID dishId;
+    private String name;
+    private long orderCount;
+    private BigDecimal revenue;
+
+    public UUID getDishId() {
+        return dishId;
+    }
+
+    public DishSalesDto setDishId(UUID dishId) {
+        this.dishId = dishId;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DishSalesDto setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public DishSalesDto setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+        return this;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public DishSalesDto setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+        return this;
+    }
+}
@@ -0,0 +1,86 @@
+package com.mobylab.springbackend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The part of an order one kitchen station prepares.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class KitchenTicketDto {
+
+    private UUID orderId;
+    private String station;
+    private int priority;
+    private LocalDateTime orderDate;
+    private List<UUID> dishIds;
+    private String claimedBy;
+    private Instant claimedAt;
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public KitchenTicketDto setOrderId(UUID orderId) {
+        this.orderId = orderId;
+        return this;
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    public KitchenTicketDto setStation(String station) {
+        this.station = station;
+        return this;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public KitchenTicketDto setPriority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public KitchenTicketDto setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+        return this;
+    }
+
+    public List<UUID> getDishIds() {
+        return dishIds;
+    }
+
+    public KitchenTicketDto setDishIds(List<UUID> dishIds) {
+        this.dishIds = dishIds;
+        return this;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public KitchenTicketDto setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+        return this;
+    }
+
+    public Instant getClaimedAt() {
+        return claimedAt;
+    }
+
+    public KitchenTicketDto setClaimedAt(Instant claimedAt) {
+        this.claimedAt = claimedAt;
+        return this;
+    }
+}
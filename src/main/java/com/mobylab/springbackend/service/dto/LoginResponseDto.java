@@ -1,11 +1,7 @@
 package com.mobylab.springbackend.service.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.stereotype.Component;
 
-@Component
 public class LoginResponseDto {
 
     @JsonProperty("access_token")
@@ -13,8 +9,11 @@ public class LoginResponseDto {
     @JsonProperty("token_type")
     private String type = "Bearer";
     @JsonProperty("expires_in")
-    @Value("${token.ttl}")
     private long expire;
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+    @JsonProperty("refresh_expires_in")
+    private long refreshExpire;
 
     public String getToken() {
         return token;
@@ -28,6 +27,14 @@ public class LoginResponseDto {
         return expire;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public long getRefreshExpire() {
+        return refreshExpire;
+    }
+
     public LoginResponseDto setToken(String token) {
         this.token = token;
         return this;
@@ -42,4 +49,14 @@ public class LoginResponseDto {
         this.expire = expire;
         return this;
     }
+
+    public LoginResponseDto setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+        return this;
+    }
+
+    public LoginResponseDto setRefreshExpire(long refreshExpire) {
+        this.refreshExpire = refreshExpire;
+        return this;
+    }
 }
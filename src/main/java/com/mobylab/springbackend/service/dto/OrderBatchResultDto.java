@@ -0,0 +1,59 @@
+package com.mobylab.springbackend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a batch order submission, in request order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderBatchResultDto {
+
+    private int index;
+    private String status;
+    private OrderDto order;
+    private String error;
+
+    public static OrderBatchResultDto created(int index, OrderDto order) {
+        return new OrderBatchResultDto().setIndex(index).setStatus("CREATED").setOrder(order);
+    }
+
+    public static OrderBatchResultDto rejected(int index, String error) {
+        return new OrderBatchResultDto().setIndex(index).setStatus("REJECTED").setError(error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public OrderBatchResultDto setIndex(int index) {
+        this.index = index;
+        return this;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public OrderBatchResultDto setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public OrderDto getOrder() {
+        return order;
+    }
+
+    public OrderBatchResultDto setOrder(OrderDto order) {
+        this.order = order;
+        return this;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public OrderBatchResultDto setError(String error) {
+        this.error = error;
+        return this;
+    }
+}
@@ -10,6 +10,7 @@ public class OrderDto {
     private String status;
     private String clientEmail;
     private List<UUID> dishIds;
+    private Integer priority;
 
     public UUID getId() {
         return id;
@@ -31,6 +32,10 @@ public class OrderDto {
         return dishIds;
     }
 
+    public Integer getPriority() {
+        return priority;
+    }
+
     public void setId(UUID id) {
         this.id = id;
     }
@@ -51,5 +56,9 @@ public class OrderDto {
         this.dishIds = dishIds;
     }
 
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
     // Getters & Setters
 }
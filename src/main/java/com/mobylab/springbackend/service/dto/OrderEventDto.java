@@ -0,0 +1,100 @@
+package com.mobylab.springbackend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A change to an order, published inside the transaction that made it and pushed to
+ * subscribers by {@link com.mobylab.springbackend.service.OrderEventHub} once that commits.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderEventDto {
+
+    public static final String PLACED = "order-placed";
+    public static final String STATUS_CHANGED = "order-status-changed";
+
+    private String type;
+    private UUID orderId;
+    private String status;
+    private String clientEmail;
+    private LocalDateTime occurredAt;
+    private Integer priority;
+    private List<UUID> dishIds;
+
+    public static OrderEventDto placed(UUID orderId, String status, String clientEmail,
+                                       LocalDateTime orderDate, int priority, List<UUID> dishIds) {
+        return new OrderEventDto().setType(PLACED).setOrderId(orderId).setStatus(status)
+                .setClientEmail(clientEmail).setOccurredAt(orderDate).setPriority(priority).setDishIds(dishIds);
+    }
+
+    public static OrderEventDto statusChanged(UUID orderId, String status, String clientEmail) {
+        return new OrderEventDto().setType(STATUS_CHANGED).setOrderId(orderId).setStatus(status)
+                .setClientEmail(clientEmail).setOccurredAt(LocalDateTime.now());
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public OrderEventDto setType(String type) {
+        this.type = type;
+        return this;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public OrderEventDto setOrderId(UUID orderId) {
+        this.orderId = orderId;
+        return this;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public OrderEventDto setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public String getClientEmail() {
+        return clientEmail;
+    }
+
+    public OrderEventDto setClientEmail(String clientEmail) {
+        this.clientEmail = clientEmail;
+        return this;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public OrderEventDto setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+        return this;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public OrderEventDto setPriority(Integer priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public List<UUID> getDishIds() {
+        return dishIds;
+    }
+
+    public OrderEventDto setDishIds(List<UUID> dishIds) {
+        this.dishIds = dishIds;
+        return this;
+    }
+}
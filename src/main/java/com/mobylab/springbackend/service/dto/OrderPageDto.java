@@ -0,0 +1,32 @@
+package com.mobylab.springbackend.service.dto;
+
+import java.util.List;
+
+/**
+ * One page of an order search. {@code nextCursor} is passed back as {@code cursor} to get the
+ * following page and is null on the last one. Over HTTP the items are the body and the cursor
+ * travels in the {@code X-Next-Cursor} header.
+ */
+public class OrderPageDto {
+
+    private List<OrderDto> items;
+    private String nextCursor;
+
+    public List<OrderDto> getItems() {
+        return items;
+    }
+
+    public OrderPageDto setItems(List<OrderDto> items) {
+        this.items = items;
+        return this;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public OrderPageDto setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+        return this;
+    }
+}
@@ -0,0 +1,42 @@
+package com.mobylab.springbackend.service.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves many orders to {@code to} at once. When {@code from} is set only orders currently in
+ * that status are moved, otherwise any status that may move to {@code to}.
+ */
+public class OrderStatusChangeDto {
+
+    private List<UUID> orderIds;
+    private String from;
+    private String to;
+
+    public List<UUID> getOrderIds() {
+        return orderIds;
+    }
+
+    public OrderStatusChangeDto setOrderIds(List<UUID> orderIds) {
+        this.orderIds = orderIds;
+        return this;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public OrderStatusChangeDto setFrom(String from) {
+        this.from = from;
+        return this;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public OrderStatusChangeDto setTo(String to) {
+        this.to = to;
+        return this;
+    }
+}
@@ -0,0 +1,56 @@
+package com.mobylab.springbackend.service.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk status change. {@code conflicts} are the orders that were not in an
+ * expected status when the update ran, typically because another screen moved them first,
+ * with the status they are in now.
+ */
+public class OrderStatusChangeResultDto {
+
+    private String status;
+    private List<UUID> updated;
+    private List<Conflict> conflicts;
+    private List<UUID> notFound;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public OrderStatusChangeResultDto setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public List<UUID> getUpdated() {
+        return updated;
+    }
+
+    public OrderStatusChangeResultDto setUpdated(List<UUID> updated) {
+        this.updated = updated;
+        return this;
+    }
+
+    public List<Conflict> getConflicts() {
+        return conflicts;
+    }
+
+    public OrderStatusChangeResultDto setConflicts(List<Conflict> conflicts) {
+        this.conflicts = conflicts;
+        return this;
+    }
+
+    public List<UUID> getNotFound() {
+        return notFound;
+    }
+
+    public OrderStatusChangeResultDto setNotFound(List<UUID> notFound) {
+        this.notFound = notFound;
+        return this;
+    }
+
+    public record Conflict(UUID id, String currentStatus) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.mobylab.springbackend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class RefreshTokenDto {
+
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public RefreshTokenDto setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+        return this;
+    }
+}
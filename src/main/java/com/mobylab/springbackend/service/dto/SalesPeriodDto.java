@@ -0,0 +1,41 @@
+package com.mobylab.springbackend.service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sales of all dishes over one day or week.
+ */
+public class SalesPeriodDto {
+
+    private LocalDate periodStart;
+    private long itemsSold;
+    private BigDecimal revenue;
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public SalesPeriodDto setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+        return this;
+    }
+
+    public long getItemsSold() {
+        return itemsSold;
+    }
+
+    public SalesPeriodDto setItemsSold(long itemsSold) {
+        this.itemsSold = itemsSold;
+        return this;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public SalesPeriodDto setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+        return this;
+    }
+}
@@ -0,0 +1,40 @@
+package com.mobylab.springbackend.service.dto;
+
+import java.util.UUID;
+
+/**
+ * How often a dish was ordered within a recent time window.
+ */
+public class TrendingDishDto {
+
+    private UUID dishId;
+    private String name;
+    private long orders;
+
+    public UUID getDishId() {
+        return dishId;
+    }
+
+    public TrendingDishDto setDishId(UUID dishId) {
+        this.dishId = dishId;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TrendingDishDto setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public TrendingDishDto setOrders(long orders) {
+        this.orders = orders;
+        return this;
+    }
+}
@@ -0,0 +1,94 @@
+package com.mobylab.springbackend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of the NDJSON stream written back by the bulk user import: a per-row
+ * {@code error}, a {@code progress} line after every committed chunk, or the final {@code summary}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportEventDto {
+
+    private String type;
+    private Long line;
+    private String email;
+    private String message;
+    private Long processed;
+    private Long imported;
+    private Long failed;
+
+    public static UserImportEventDto error(long line, String email, String message) {
+        return new UserImportEventDto().setType("error").setLine(line).setEmail(email).setMessage(message);
+    }
+
+    public static UserImportEventDto progress(long processed, long imported, long failed) {
+        return new UserImportEventDto().setType("progress").setProcessed(processed).setImported(imported).setFailed(failed);
+    }
+
+    public static UserImportEventDto summary(long processed, long imported, long failed) {
+        return progress(processed, imported, failed).setType("summary");
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public UserImportEventDto setType(String type) {
+        this.type = type;
+        return this;
+    }
+
+    public Long getLine() {
+        return line;
+    }
+
+    public UserImportEventDto setLine(Long line) {
+        this.line = line;
+        return this;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserImportEventDto setEmail(String email) {
+        this.email = email;
+        return this;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public UserImportEventDto setMessage(String message) {
+        this.message = message;
+        return this;
+    }
+
+    public Long getProcessed() {
+        return processed;
+    }
+
+    public UserImportEventDto setProcessed(Long processed) {
+        this.processed = processed;
+        return this;
+    }
+
+    public Long getImported() {
+        return imported;
+    }
+
+    public UserImportEventDto setImported(Long imported) {
+        this.imported = imported;
+        return this;
+    }
+
+    public Long getFailed() {
+        return failed;
+    }
+
+    public UserImportEventDto setFailed(Long failed) {
+        this.failed = failed;
+        return this;
+    }
+}
@@ -0,0 +1,10 @@
+SET search_path = project, pg_catalog;
+
+-- Keyset pagination for the admin order search walks (order_date, id) newest first,
+-- optionally narrowed to one status or one client, so each filter gets an index in that order.
+CREATE INDEX idx_order_date_id ON "order" (order_date, id);
+CREATE INDEX idx_order_status_date_id ON "order" (status, order_date, id);
+
+-- Covers every lookup the plain user_id index served.
+CREATE INDEX idx_order_user_date_id ON "order" (user_id, order_date, id);
+DROP INDEX idx_order_user_id;
@@ -0,0 +1,8 @@
+SET search_path = project, pg_catalog;
+
+-- Statuses used to be free-form strings; the known ones are now an enum stored by name.
+UPDATE "order" SET status = upper(btrim(status)) WHERE status <> upper(btrim(status));
+
+-- NOT VALID enforces the constraint on every new write without failing on legacy values.
+ALTER TABLE "order" ADD CONSTRAINT order_status_check
+    CHECK (status IN ('PLACED', 'PREPARING', 'READY', 'DELIVERED', 'CANCELLED')) NOT VALID;
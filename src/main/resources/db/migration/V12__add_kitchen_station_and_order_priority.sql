@@ -0,0 +1,8 @@
+SET search_path = project, pg_catalog;
+
+-- Kitchen station that prepares the dish; orders are split into one ticket per station.
+ALTER TABLE dish ADD COLUMN station varchar(20) NOT NULL DEFAULT 'GRILL'
+    CONSTRAINT dish_station_check CHECK (station IN ('GRILL', 'COLD', 'DESSERT'));
+
+-- Higher goes first in the kitchen queue; orders of equal priority are served oldest first.
+ALTER TABLE "order" ADD COLUMN priority smallint NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+SET search_path = project, pg_catalog;
+
+-- One row per Idempotency-Key a client sent with POST /api/v1/orders. The row is inserted in
+-- the same transaction as the order, so a key is either unused or bound to exactly one order.
+CREATE TABLE order_idempotency_key (
+    owner text NOT NULL,
+    idempotency_key varchar(255) NOT NULL,
+    request_hash varchar(64) NOT NULL,
+    order_id uuid,
+    response text,
+    created_at timestamp without time zone NOT NULL,
+    CONSTRAINT order_idempotency_key_pkey PRIMARY KEY (owner, idempotency_key)
+);
+
+CREATE INDEX idx_order_idempotency_key_created_at ON order_idempotency_key (created_at);
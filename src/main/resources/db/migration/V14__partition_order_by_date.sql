@@ -0,0 +1,63 @@
+SET search_path = project, pg_catalog;
+
+-- Orders are range partitioned by month on order_date, so queries on recent orders only touch
+-- recent partitions and old months can be detached into order_archive without rewriting rows.
+-- A primary key on a partitioned table must include the partition key, hence (id, order_date);
+-- ids stay random UUIDs generated by the application.
+ALTER TABLE order_dish DROP CONSTRAINT fk_order_dish_order;
+ALTER TABLE "order" RENAME TO order_unpartitioned;
+
+CREATE TABLE "order" (
+    id uuid NOT NULL,
+    order_date timestamp without time zone NOT NULL,
+    status character varying(50) NOT NULL,
+    user_id uuid NOT NULL,
+    priority smallint NOT NULL DEFAULT 0
+) PARTITION BY RANGE (order_date);
+
+-- Catches rows outside the monthly partitions; OrderPartitionService keeps it empty by
+-- creating partitions ahead of time.
+CREATE TABLE order_default PARTITION OF "order" DEFAULT;
+
+DO $$
+DECLARE
+    month timestamp;
+    last timestamp := date_trunc('month', localtimestamp) + interval '3 months';
+BEGIN
+    SELECT date_trunc('month', coalesce(min(order_date), localtimestamp)) INTO month FROM order_unpartitioned;
+    WHILE month <= last LOOP
+        EXECUTE format('CREATE TABLE project.%I PARTITION OF project."order" FOR VALUES FROM (%L) TO (%L)',
+                       'order_p' || to_char(month, 'YYYY_MM'), month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO "order" (id, order_date, status, user_id, priority)
+SELECT id, order_date, status, user_id, priority FROM order_unpartitioned;
+DROP TABLE order_unpartitioned;
+
+ALTER TABLE "order" ADD CONSTRAINT order_pkey PRIMARY KEY (id, order_date);
+ALTER TABLE "order" ADD CONSTRAINT fk_order_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE RESTRICT;
+ALTER TABLE "order" ADD CONSTRAINT order_status_check
+    CHECK (status IN ('PLACED', 'PREPARING', 'READY', 'DELIVERED', 'CANCELLED')) NOT VALID;
+CREATE INDEX idx_order_date_id ON "order" (order_date, id);
+CREATE INDEX idx_order_status_date_id ON "order" (status, order_date, id);
+CREATE INDEX idx_order_user_date_id ON "order" (user_id, order_date, id);
+
+-- Detached months are attached here as they are, so archived orders stay queryable.
+CREATE TABLE order_archive (
+    id uuid NOT NULL,
+    order_date timestamp without time zone NOT NULL,
+    status character varying(50) NOT NULL,
+    user_id uuid NOT NULL,
+    priority smallint NOT NULL DEFAULT 0,
+    CONSTRAINT order_archive_pkey PRIMARY KEY (id, order_date)
+) PARTITION BY RANGE (order_date);
+CREATE INDEX idx_order_archive_user_date_id ON order_archive (user_id, order_date, id);
+
+CREATE TABLE order_dish_archive (
+    order_id uuid NOT NULL,
+    dish_id uuid NOT NULL,
+    CONSTRAINT order_dish_archive_pkey PRIMARY KEY (order_id, dish_id),
+    CONSTRAINT fk_order_dish_archive_dish FOREIGN KEY (dish_id) REFERENCES dish(id) ON DELETE RESTRICT
+);
@@ -0,0 +1,22 @@
+SET search_path = project, pg_catalog;
+
+-- Orders and revenue per dish per day, kept up to date by SalesReportService as orders are
+-- placed and cancelled. Revenue uses the dish price when the order was counted.
+CREATE TABLE sales_daily_dish (
+    day date NOT NULL,
+    dish_id uuid NOT NULL,
+    order_count bigint NOT NULL,
+    revenue numeric(14, 2) NOT NULL,
+    CONSTRAINT sales_daily_dish_pkey PRIMARY KEY (day, dish_id),
+    CONSTRAINT fk_sales_daily_dish_dish FOREIGN KEY (dish_id) REFERENCES dish(id) ON DELETE CASCADE
+);
+
+INSERT INTO sales_daily_dish (day, dish_id, order_count, revenue)
+SELECT o.order_date::date, od.dish_id, count(*), sum(d.price)
+FROM (SELECT id, order_date, status FROM "order"
+      UNION ALL SELECT id, order_date, status FROM order_archive) o
+JOIN (SELECT order_id, dish_id FROM order_dish
+      UNION ALL SELECT order_id, dish_id FROM order_dish_archive) od ON od.order_id = o.id
+JOIN dish d ON d.id = od.dish_id
+WHERE o.status <> 'CANCELLED'
+GROUP BY 1, 2;
@@ -0,0 +1,28 @@
+SET search_path = project, pg_catalog;
+
+-- The price of each dish as it was when the order was placed, so the sales rollup adds and
+-- later subtracts the same amount however the menu price changes in between. Rows placed
+-- before this migration recorded no price; they take the current one.
+ALTER TABLE order_dish ADD COLUMN unit_price numeric(10, 2);
+ALTER TABLE order_dish_archive ADD COLUMN unit_price numeric(10, 2);
+
+UPDATE order_dish od SET unit_price = d.price FROM dish d WHERE d.id = od.dish_id;
+UPDATE order_dish_archive od SET unit_price = d.price FROM dish d WHERE d.id = od.dish_id;
+
+ALTER TABLE order_dish ALTER COLUMN unit_price SET NOT NULL;
+ALTER TABLE order_dish_archive ALTER COLUMN unit_price SET NOT NULL;
+
+-- Orders are written both by JDBC and through the JPA join table, which cannot carry the
+-- price; filling it here covers every path.
+CREATE FUNCTION order_dish_unit_price() RETURNS trigger AS $$
+BEGIN
+    IF NEW.unit_price IS NULL THEN
+        SELECT price INTO NEW.unit_price FROM project.dish WHERE id = NEW.dish_id;
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_order_dish_unit_price
+    BEFORE INSERT ON order_dish
+    FOR EACH ROW EXECUTE FUNCTION order_dish_unit_price();
@@ -0,0 +1,85 @@
+SET search_path = project, pg_catalog;
+
+-- Archiving detaches old months with DETACH PARTITION ... CONCURRENTLY so it never blocks order
+-- traffic, which Postgres refuses while the table has a default partition. Rows that landed in
+-- it move to monthly partitions, created as needed along with the current and next three
+-- months; from here on OrderPartitionService creates them at startup and ahead of time, and an
+-- order outside every partition is rejected.
+ALTER TABLE "order" DETACH PARTITION order_default;
+
+DO $$
+DECLARE
+    month timestamp;
+BEGIN
+    FOR month IN
+        SELECT date_trunc('month', order_date) FROM order_default
+        UNION
+        SELECT date_trunc('month', localtimestamp) + n * interval '1 month' FROM generate_series(0, 3) AS n
+    LOOP
+        IF to_regclass(format('project.%I', 'order_p' || to_char(month, 'YYYY_MM'))) IS NULL THEN
+            EXECUTE format('CREATE TABLE project.%I PARTITION OF project."order" FOR VALUES FROM (%L) TO (%L)',
+                           'order_p' || to_char(month, 'YYYY_MM'), month, month + interval '1 month');
+        END IF;
+    END LOOP;
+END $$;
+
+INSERT INTO "order" (id, order_date, status, user_id, priority)
+SELECT id, order_date, status, user_id, priority FROM order_default;
+DROP TABLE order_default;
+
+-- V14 dropped fk_order_dish_order because a foreign key to a partitioned table must cover its
+-- partition key and order_dish has no order_date. The triggers below restore what it enforced:
+-- order ids are unique across months, an order line needs its order, and deleting an order
+-- deletes its lines. They only guard against bugs, since the application generates random ids,
+-- writes the lines in the same transaction as their order and never deletes orders.
+
+CREATE FUNCTION order_unique_id() RETURNS trigger AS $$
+BEGIN
+    -- Serializes writers of the same id, so the second one sees the first once it has committed.
+    PERFORM pg_advisory_xact_lock(hashtext('project.order_id'), hashtext(NEW.id::text));
+    IF (SELECT count(*) FROM project."order" WHERE id = NEW.id) > 1 THEN
+        RAISE EXCEPTION 'duplicate order id %', NEW.id USING ERRCODE = 'unique_violation';
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_order_unique_id
+    AFTER INSERT OR UPDATE OF id ON "order"
+    FOR EACH ROW EXECUTE FUNCTION order_unique_id();
+
+-- AFTER rather than BEFORE, so it sees an order inserted by the same statement.
+CREATE FUNCTION order_dish_order_exists() RETURNS trigger AS $$
+BEGIN
+    -- Locks the order like a foreign key check does, so it cannot be deleted underneath.
+    PERFORM 1 FROM project."order" WHERE id = NEW.order_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'order % does not exist', NEW.order_id USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_order_dish_order_exists
+    AFTER INSERT OR UPDATE OF order_id ON order_dish
+    FOR EACH ROW EXECUTE FUNCTION order_dish_order_exists();
+
+CREATE FUNCTION order_delete_dishes() RETURNS trigger AS $$
+BEGIN
+    -- An update moving an order to another month runs as a delete and an insert; the order
+    -- still exists then and keeps its lines.
+    IF (TG_OP = 'UPDATE' AND OLD.id = NEW.id) OR EXISTS (SELECT 1 FROM project."order" WHERE id = OLD.id) THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM project.order_dish WHERE order_id = OLD.id;
+    ELSIF EXISTS (SELECT 1 FROM project.order_dish WHERE order_id = OLD.id) THEN
+        RAISE EXCEPTION 'order % still has order lines', OLD.id USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_order_delete_dishes
+    AFTER DELETE OR UPDATE OF id ON "order"
+    FOR EACH ROW EXECUTE FUNCTION order_delete_dishes();
@@ -0,0 +1,5 @@
+SET search_path = project, pg_catalog;
+
+-- Rotated whenever a user's roles change or the account is removed, so tokens
+-- carrying an older stamp stop being accepted without a per-request user lookup.
+ALTER TABLE users ADD COLUMN security_stamp uuid NOT NULL DEFAULT gen_random_uuid();
@@ -0,0 +1,15 @@
+SET search_path = project, pg_catalog;
+
+-- Asymmetric JWT signing keys shared by every instance of the application.
+-- Public halves are published on /.well-known/jwks.json until retire_at.
+CREATE TABLE signing_key (
+                             kid text NOT NULL,
+                             algorithm character varying(10) NOT NULL,
+                             public_key text NOT NULL,  -- base64 X.509 SubjectPublicKeyInfo
+                             private_key text NOT NULL, -- base64 PKCS#8
+                             created_at timestamp without time zone NOT NULL,
+                             retire_at timestamp without time zone NOT NULL,
+                             CONSTRAINT signing_key_pkey PRIMARY KEY (kid)
+);
+
+CREATE INDEX idx_signing_key_created_at ON signing_key(created_at);
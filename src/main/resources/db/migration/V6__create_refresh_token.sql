@@ -0,0 +1,16 @@
+SET search_path = project, pg_catalog;
+
+-- Only a SHA-256 of each opaque refresh token is stored. Tokens issued from the same
+-- login share a family so a replayed (already rotated) token can revoke all of them.
+CREATE TABLE refresh_token (
+                               token_hash character varying(43) NOT NULL, -- base64url SHA-256
+                               family_id uuid NOT NULL,
+                               user_id uuid NOT NULL,
+                               expires_at timestamp without time zone NOT NULL,
+                               used boolean NOT NULL DEFAULT false,
+                               CONSTRAINT refresh_token_pkey PRIMARY KEY (token_hash),
+                               CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_refresh_token_family_id ON refresh_token(family_id);
+CREATE INDEX idx_refresh_token_expires_at ON refresh_token(expires_at);
@@ -0,0 +1,11 @@
+SET search_path = project, pg_catalog;
+
+-- JWT ids (jti) revoked before their natural expiry. Rows can be dropped once
+-- expires_at has passed because the token would be rejected anyway.
+CREATE TABLE revoked_token (
+                               jti uuid NOT NULL,
+                               expires_at timestamp without time zone NOT NULL,
+                               CONSTRAINT revoked_token_pkey PRIMARY KEY (jti)
+);
+
+CREATE INDEX idx_revoked_token_expires_at ON revoked_token(expires_at);
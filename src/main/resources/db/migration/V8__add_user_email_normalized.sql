@@ -0,0 +1,28 @@
+SET search_path = project, pg_catalog;
+
+-- Emails used to be matched exactly, so existing data may hold several accounts whose
+-- addresses differ only in case or surrounding spaces. The unique index below cannot be
+-- built over them; stop with the list of colliding addresses instead of a bare unique
+-- violation. To upgrade, keep one account per address, reassign the orders and reviews of
+-- the others to it, delete the others and restart.
+DO $$
+DECLARE
+    collisions text;
+BEGIN
+    SELECT string_agg(emails, '; ' ORDER BY emails)
+    INTO collisions
+    FROM (SELECT string_agg(email, ', ' ORDER BY email) AS emails
+          FROM users
+          GROUP BY lower(btrim(email))
+          HAVING count(*) > 1) duplicated;
+    IF collisions IS NOT NULL THEN
+        RAISE EXCEPTION 'users.email holds addresses that differ only in case or whitespace, merge these accounts before upgrading: %', collisions;
+    END IF;
+END $$;
+
+-- Lookups go through the normalized form so that differently cased spellings of an
+-- address resolve to the same account and cannot be registered twice.
+ALTER TABLE users
+    ADD COLUMN email_normalized text GENERATED ALWAYS AS (lower(btrim(email))) STORED;
+
+CREATE UNIQUE INDEX users_email_normalized_key ON users (email_normalized);
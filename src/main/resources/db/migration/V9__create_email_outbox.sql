@@ -0,0 +1,18 @@
+SET search_path = project, pg_catalog;
+
+CREATE TABLE email_outbox (
+    id uuid NOT NULL,
+    recipient text NOT NULL,
+    subject text NOT NULL,
+    body text NOT NULL,
+    status varchar(16) NOT NULL,
+    attempts integer NOT NULL DEFAULT 0,
+    next_attempt_at timestamp without time zone NOT NULL,
+    last_error text,
+    created_at timestamp without time zone NOT NULL,
+    sent_at timestamp without time zone,
+    CONSTRAINT email_outbox_pkey PRIMARY KEY (id)
+);
+
+-- The dispatcher only ever polls pending messages that are due.
+CREATE INDEX idx_email_outbox_pending ON email_outbox (next_attempt_at) WHERE status = 'PENDING';
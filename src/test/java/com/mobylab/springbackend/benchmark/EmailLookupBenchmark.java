@@ -0,0 +1,108 @@
+package com.mobylab.springbackend.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of a user by email on a table of {@code rows} users, with the V1 schema
+ * (no index on {@code email}) and with the V8 normalized column and its unique index.
+ * The data lives in a scratch {@code email_lookup_benchmark} schema that is dropped afterwards.
+ *
+ * Needs a running Postgres, by default the one from application.yml; override with
+ * {@code -Dbenchmark.jdbc.url}, {@code -Dbenchmark.jdbc.user} and {@code -Dbenchmark.jdbc.password}.
+ * Run {@link #main(String[])} after {@code mvn test-compile}, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main EmailLookupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailLookupBenchmark {
+
+    private static final String SCHEMA = "email_lookup_benchmark";
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Connection connection;
+    private PreparedStatement byEmail;
+    private PreparedStatement byNormalizedEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("CREATE TABLE " + SCHEMA + ".users (id uuid PRIMARY KEY, username text, email text, password text,"
+                    + " email_normalized text GENERATED ALWAYS AS (lower(btrim(email))) STORED)");
+            statement.execute("INSERT INTO " + SCHEMA + ".users (id, username, email, password)"
+                    + " SELECT gen_random_uuid(), 'user' || i, 'User' || i || '@Example.com', repeat('x', 60)"
+                    + " FROM generate_series(1, " + rows + ") AS i");
+            statement.execute("CREATE UNIQUE INDEX ON " + SCHEMA + ".users (email_normalized)");
+            statement.execute("ANALYZE " + SCHEMA + ".users");
+        }
+        byEmail = connection.prepareStatement("SELECT id, password FROM " + SCHEMA + ".users WHERE email = ?");
+        byNormalizedEmail = connection.prepareStatement(
+                "SELECT id, password FROM " + SCHEMA + ".users WHERE email_normalized = lower(btrim(?))");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public Object unindexedEmail() throws SQLException {
+        return lookup(byEmail);
+    }
+
+    @Benchmark
+    public Object indexedNormalizedEmail() throws SQLException {
+        return lookup(byNormalizedEmail);
+    }
+
+    private Object lookup(PreparedStatement statement) throws SQLException {
+        statement.setString(1, "User" + ThreadLocalRandom.current().nextInt(1, rows + 1) + "@Example.com");
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getObject(1) : null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
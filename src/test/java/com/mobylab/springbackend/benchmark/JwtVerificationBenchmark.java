@@ -0,0 +1,97 @@
+package com.mobylab.springbackend.benchmark;
+
+import com.mobylab.springbackend.config.security.JwtGenerator;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the request-path cost of the previous JWT handling (validate, then parse again
+ * to read the subject, each time building a parser from the secret string) with
+ * {@link JwtGenerator#verifyToken(String)} on a cold and on a warm verified-claims cache.
+ *
+ * Run {@link #main(String[])} after {@code mvn test-compile}, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main JwtVerificationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "https://www.youtube.com/watch?v=VBUMYOYJISc";
+    private static final long TTL = 3600000;
+
+    private JwtGenerator coldGenerator;
+    private JwtGenerator warmGenerator;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = Jwts.builder()
+                .setSubject("user@example.com")
+                .claim(JwtGenerator.ROLES_CLAIM, List.of("USER"))
+                .claim(JwtGenerator.STAMP_CLAIM, "0b8d3c3e-5c9f-4c7e-a1c4-3c6f5b1e2d11")
+                .setIssuedAt(new Date())
+                .setIssuer("http://localhost:8090")
+                .setExpiration(new Date(System.currentTimeMillis() + TTL))
+                .signWith(SignatureAlgorithm.HS512, SECRET)
+                .compact();
+        coldGenerator = newGenerator(0);
+        warmGenerator = newGenerator(10000);
+        warmGenerator.verifyToken(token);
+    }
+
+    private static JwtGenerator newGenerator(long cacheSize) {
+        JwtGenerator generator = new JwtGenerator();
+        ReflectionTestUtils.setField(generator, "JWT_SECRET", SECRET);
+        ReflectionTestUtils.setField(generator, "JWT_EXPIRY", TTL);
+        ReflectionTestUtils.setField(generator, "verifiedCacheSize", cacheSize);
+        ReflectionTestUtils.setField(generator, "acceptLegacyHs512", true);
+        generator.init();
+        return generator;
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token);
+        Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String verifyOnceUncached() {
+        return coldGenerator.verifyToken(token).getSubject();
+    }
+
+    @Benchmark
+    public String verifyOnceCached() {
+        return warmGenerator.verifyToken(token).getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.mobylab.springbackend.benchmark;
+
+import com.mobylab.springbackend.entity.EmailOutboxMessage;
+import com.mobylab.springbackend.service.EmailNotificationService;
+import com.mobylab.springbackend.service.SmtpConnectionPool;
+import com.mobylab.springbackend.support.SmtpSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per second delivered to an in-process SMTP server ({@link SmtpSink}) by the previous
+ * path, one {@link JavaMailSenderImpl#send} and therefore one connection per message, and by
+ * {@link EmailNotificationService#sendAll} over {@link SmtpConnectionPool}.
+ * The sink has no TLS or AUTH, so against a real server the gap is larger than reported here.
+ *
+ * Run {@link #main(String[])} after {@code mvn test-compile}, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main MailThroughputBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailThroughputBenchmark {
+
+    private static final int BATCH = 100;
+
+    private SmtpSink smtpSink;
+    private JavaMailSenderImpl mailSender;
+    private SmtpConnectionPool smtpConnectionPool;
+    private EmailNotificationService emailNotificationService;
+    private List<EmailOutboxMessage> batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        smtpSink = new SmtpSink();
+        smtpSink.setKeepMessages(false);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpSink.getPort());
+        smtpConnectionPool = new SmtpConnectionPool(mailSender, 2, 60000, 30000);
+        emailNotificationService = new EmailNotificationService(smtpConnectionPool);
+
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new EmailOutboxMessage()
+                    .setId(UUID.randomUUID())
+                    .setRecipient("user" + i + "@example.com")
+                    .setSubject("Your Order Confirmation (ID: " + UUID.randomUUID() + ")")
+                    .setBody("Dear user,\n\nYour order has been placed successfully and is now being processed.\n"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        smtpConnectionPool.close();
+        smtpSink.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void connectionPerMessage() {
+        for (EmailOutboxMessage message : batch) {
+            SimpleMailMessage mail = new SimpleMailMessage();
+            mail.setTo(message.getRecipient());
+            mail.setSubject(message.getSubject());
+            mail.setText(message.getBody());
+            mailSender.send(mail);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Map<UUID, String> pooledBatch() {
+        return emailNotificationService.sendAll(batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MailThroughputBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
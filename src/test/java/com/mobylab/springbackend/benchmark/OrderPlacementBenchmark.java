@@ -0,0 +1,216 @@
+package com.mobylab.springbackend.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution (use the p0.99 line of the output) of the database work for one order
+ * of {@code dishes} dishes, comparing the statements the JPA placement path issues (user by
+ * email with its roles, dishes by id, the order row, one insert per dish link) with the fast
+ * path (hash set check against a menu snapshot and one INSERT ... WITH statement). Both run in
+ * a transaction on a scratch {@code order_placement_benchmark} schema that is dropped afterwards.
+ * Synchronous commit is turned off for the session so the WAL flush, which both paths pay
+ * once, does not hide the difference in statement round trips.
+ *
+ * Needs a running Postgres, by default the one from application.yml; override with
+ * {@code -Dbenchmark.jdbc.url}, {@code -Dbenchmark.jdbc.user} and {@code -Dbenchmark.jdbc.password}.
+ * Run {@link #main(String[])} after {@code mvn test-compile}, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main OrderPlacementBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPlacementBenchmark {
+
+    private static final String SCHEMA = "order_placement_benchmark";
+    private static final int USERS = 10000;
+    private static final int MENU = 200;
+
+    @Param({"5"})
+    private int dishes;
+
+    private Connection connection;
+    private List<UUID> userIds;
+    private List<UUID> menu;
+    private Set<UUID> menuSnapshot;
+
+    private PreparedStatement findUser;
+    private PreparedStatement findDishes;
+    private PreparedStatement insertOrder;
+    private PreparedStatement insertOrderDish;
+    private PreparedStatement insertOrderWithDishes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path = " + SCHEMA);
+            statement.execute("CREATE TABLE users (id uuid PRIMARY KEY, username text, email text, password text,"
+                    + " email_normalized text GENERATED ALWAYS AS (lower(btrim(email))) STORED)");
+            statement.execute("CREATE UNIQUE INDEX ON users (email_normalized)");
+            statement.execute("CREATE TABLE roles (id integer PRIMARY KEY, name text)");
+            statement.execute("CREATE TABLE user_role (user_id uuid REFERENCES users (id), role_id integer REFERENCES roles (id),"
+                    + " PRIMARY KEY (user_id, role_id))");
+            statement.execute("CREATE TABLE dish (id uuid PRIMARY KEY, name varchar(255) NOT NULL, description text,"
+                    + " price numeric(10, 2) NOT NULL)");
+            statement.execute("CREATE TABLE \"order\" (id uuid PRIMARY KEY, order_date timestamp NOT NULL,"
+                    + " status varchar(50) NOT NULL, user_id uuid NOT NULL REFERENCES users (id))");
+            statement.execute("CREATE TABLE order_dish (order_id uuid NOT NULL REFERENCES \"order\" (id) ON DELETE CASCADE,"
+                    + " dish_id uuid NOT NULL REFERENCES dish (id), PRIMARY KEY (order_id, dish_id))");
+            statement.execute("CREATE INDEX ON \"order\" (user_id)");
+            statement.execute("CREATE INDEX ON order_dish (dish_id)");
+            statement.execute("INSERT INTO roles VALUES (2, 'USER')");
+            statement.execute("INSERT INTO users (id, username, email, password) SELECT gen_random_uuid(), 'user' || i,"
+                    + " 'user' || i || '@example.com', repeat('x', 60) FROM generate_series(1, " + USERS + ") AS i");
+            statement.execute("INSERT INTO user_role SELECT id, 2 FROM users");
+            statement.execute("INSERT INTO dish SELECT gen_random_uuid(), 'dish' || i, 'description', 9.99"
+                    + " FROM generate_series(1, " + MENU + ") AS i");
+            // Order tables are left unanalyzed: stats taken while they are empty would plan
+            // the foreign key checks against them as sequential scans.
+            statement.execute("ANALYZE users, roles, user_role, dish");
+            userIds = ids(statement, "SELECT id FROM users ORDER BY username");
+            menu = ids(statement, "SELECT id FROM dish");
+        }
+        menuSnapshot = new HashSet<>(menu);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET synchronous_commit = off");
+        }
+        connection.setAutoCommit(false);
+
+        findUser = connection.prepareStatement("SELECT u.id, u.username, u.email, u.password, r.id, r.name FROM users u"
+                + " LEFT JOIN user_role ur ON ur.user_id = u.id LEFT JOIN roles r ON r.id = ur.role_id"
+                + " WHERE u.email_normalized = lower(btrim(?))");
+        findDishes = connection.prepareStatement("SELECT id, name, description, price FROM dish WHERE id = ANY (?)");
+        insertOrder = connection.prepareStatement("INSERT INTO \"order\" (order_date, status, user_id, id) VALUES (?, ?, ?, ?)");
+        insertOrderDish = connection.prepareStatement("INSERT INTO order_dish (order_id, dish_id) VALUES (?, ?)");
+        insertOrderWithDishes = connection.prepareStatement("WITH o AS (INSERT INTO \"order\" (id, order_date, status, user_id)"
+                + " VALUES (?, ?, ?, ?) RETURNING id) INSERT INTO order_dish (order_id, dish_id) SELECT o.id, d FROM o, unnest(?::uuid[]) AS d");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public UUID jpaStatementPattern() throws SQLException {
+        int user = ThreadLocalRandom.current().nextInt(USERS);
+        List<UUID> order = pickDishes();
+
+        findUser.setString(1, "user" + (user + 1) + "@example.com");
+        UUID userId = null;
+        try (ResultSet resultSet = findUser.executeQuery()) {
+            while (resultSet.next()) {
+                userId = resultSet.getObject(1, UUID.class);
+            }
+        }
+        findDishes.setArray(1, connection.createArrayOf("uuid", order.toArray()));
+        Set<UUID> found = new HashSet<>();
+        try (ResultSet resultSet = findDishes.executeQuery()) {
+            while (resultSet.next()) {
+                found.add(resultSet.getObject(1, UUID.class));
+            }
+        }
+        if (found.size() != order.size()) {
+            throw new IllegalStateException("Missing dishes");
+        }
+        UUID orderId = UUID.randomUUID();
+        insertOrder.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+        insertOrder.setString(2, "PLACED");
+        insertOrder.setObject(3, userId);
+        insertOrder.setObject(4, orderId);
+        insertOrder.executeUpdate();
+        for (UUID dish : order) {
+            insertOrderDish.setObject(1, orderId);
+            insertOrderDish.setObject(2, dish);
+            insertOrderDish.executeUpdate();
+        }
+        connection.commit();
+        return orderId;
+    }
+
+    @Benchmark
+    public UUID fastPath() throws SQLException {
+        UUID userId = userIds.get(ThreadLocalRandom.current().nextInt(USERS));
+        List<UUID> order = pickDishes();
+        for (UUID dish : order) {
+            if (!menuSnapshot.contains(dish)) {
+                throw new IllegalStateException("Missing dishes");
+            }
+        }
+        UUID orderId = UUID.randomUUID();
+        Array dishArray = connection.createArrayOf("uuid", order.toArray());
+        insertOrderWithDishes.setObject(1, orderId);
+        insertOrderWithDishes.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+        insertOrderWithDishes.setString(3, "PLACED");
+        insertOrderWithDishes.setObject(4, userId);
+        insertOrderWithDishes.setArray(5, dishArray);
+        insertOrderWithDishes.executeUpdate();
+        connection.commit();
+        return orderId;
+    }
+
+    private List<UUID> pickDishes() {
+        int first = ThreadLocalRandom.current().nextInt(MENU - dishes);
+        return new ArrayList<>(menu.subList(first, first + dishes));
+    }
+
+    private static List<UUID> ids(Statement statement, String query) throws SQLException {
+        List<UUID> ids = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getObject(1, UUID.class));
+            }
+        }
+        return ids;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderPlacementBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
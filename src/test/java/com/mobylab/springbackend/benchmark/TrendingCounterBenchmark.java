@@ -0,0 +1,62 @@
+package com.mobylab.springbackend.benchmark;
+
+import com.mobylab.springbackend.service.SlidingWindowCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of recording one order for the same dish from 8 threads at once, the worst case
+ * for the trending counters: the per-minute {@link SlidingWindowCounter} against a single
+ * shared {@link AtomicLong}, whose compare-and-set loop is what the counter avoids. Also
+ * measures reading a 60 minute window.
+ *
+ * Run {@link #main(String[])} after {@code mvn test-compile}, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main TrendingCounterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TrendingCounterBenchmark {
+
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(60);
+    private final AtomicLong shared = new AtomicLong();
+
+    @Benchmark
+    public void slidingWindowIncrement() {
+        counter.increment(SlidingWindowCounter.currentMinute());
+    }
+
+    @Benchmark
+    public long atomicIncrement() {
+        return shared.incrementAndGet();
+    }
+
+    @Benchmark
+    public long slidingWindowSum() {
+        return counter.sum(SlidingWindowCounter.currentMinute(), 60);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrendingCounterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,152 @@
+package com.mobylab.springbackend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobylab.springbackend.AuthServerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load test of the application with Tomcat's platform thread pool and with
+ * virtual threads ({@code spring.threads.virtual.enabled}). Each mode starts the application
+ * in-process on a random port; {@code clients} concurrent clients then send requests to
+ * {@code path} back to back, first for a warmup and then for the measured period, and the
+ * throughput and p50/p99/max latency of each mode are printed. Clients run on virtual threads
+ * so the load generator itself is not capped by a thread pool. Both modes share the same
+ * Hikari pool size, so DB-bound paths show how requests queue for connections rather than
+ * raw database throughput.
+ *
+ * Needs Java 21 and a running Postgres as configured in application.yml. Settings are system
+ * properties: {@code benchmark.clients} (400), {@code benchmark.seconds} (20),
+ * {@code benchmark.warmup-seconds} (5), {@code benchmark.path} (/api/v1/orders/my-orders),
+ * {@code benchmark.email} and {@code benchmark.password} (admin@admin.com / admin).
+ * Run {@link #main(String[])} after {@code mvn test-compile}, or
+ * {@code java -cp <test classpath> com.mobylab.springbackend.benchmark.VirtualThreadLoadBenchmark}.
+ */
+public class VirtualThreadLoadBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 400);
+        int seconds = Integer.getInteger("benchmark.seconds", 20);
+        int warmupSeconds = Integer.getInteger("benchmark.warmup-seconds", 5);
+        String path = System.getProperty("benchmark.path", "/api/v1/orders/my-orders");
+        String email = System.getProperty("benchmark.email", "admin@admin.com");
+        String password = System.getProperty("benchmark.password", "admin");
+
+        List<String> report = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthServerApplication.class)
+                    .properties("server.port=0",
+                            "spring.threads.virtual.enabled=" + virtual,
+                            "spring.jpa.properties.hibernate.show-sql=false",
+                            "logging.level.root=WARN")
+                    .run()) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                String token = login(client, port, email, password);
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(60))
+                        .build();
+
+                run(client, request, clients, warmupSeconds);
+                Result result = run(client, request, clients, seconds);
+                report.add(String.format("%-9s %10.1f %9.1f %9.1f %9.1f %8d",
+                        virtual ? "virtual" : "platform", result.count() / (double) seconds,
+                        result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors()));
+            }
+        }
+
+        System.out.printf("%n%d clients on %s for %d s%n", clients, path, seconds);
+        System.out.printf("%-9s %10s %9s %9s %9s %8s%n", "threads", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        report.forEach(System.out::println);
+    }
+
+    private static String login(HttpClient client, int port, String email, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        objectMapper.writeValueAsString(Map.of("email", email, "password", password))))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+        }
+        return (String) objectMapper.readValue(response.body(), Map.class).get("access_token");
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<long[]>> futures = new ArrayList<>();
+        long[] errors = new long[clients];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int clientIndex = i;
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long started = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        if (status < 200 || status >= 300) {
+                            errors[clientIndex]++;
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - started;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        Arrays.sort(all);
+        return new Result(all, Arrays.stream(errors).sum());
+    }
+
+    private record Result(long[] sortedLatencies, long errors) {
+
+        long count() {
+            return sortedLatencies.length;
+        }
+
+        double percentile(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
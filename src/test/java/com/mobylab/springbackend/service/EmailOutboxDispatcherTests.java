@@ -0,0 +1,123 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.entity.EmailOutboxMessage;
+import com.mobylab.springbackend.repository.EmailOutboxRepository;
+import com.mobylab.springbackend.support.SmtpSink;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class EmailOutboxDispatcherTests {
+
+    private static final SmtpSink smtpSink = startSink();
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", smtpSink::getPort);
+        registry.add("spring.mail.properties.mail.smtp.auth", () -> "false");
+        registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> "false");
+        registry.add("mail.outbox.poll-interval", () -> "3600000");
+        registry.add("mail.outbox.initial-backoff", () -> "0");
+        registry.add("mail.outbox.max-attempts", () -> "2");
+        registry.add("mail.outbox.lease", () -> "1000");
+    }
+
+    @AfterEach
+    void acceptAgain() {
+        smtpSink.setRejecting(false);
+        smtpSink.setDelay(0);
+    }
+
+    @AfterAll
+    static void stopSink() throws IOException {
+        smtpSink.close();
+    }
+
+    @Test
+    void sendsQueuedMessageAfterCommit() {
+        String recipient = "outbox-" + UUID.randomUUID() + "@example.com";
+        UUID id = transactionTemplate.execute(status -> emailOutboxService.enqueue(recipient, "Subject", "Body"));
+
+        emailOutboxDispatcher.dispatch();
+
+        EmailOutboxMessage message = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxMessage.Status.SENT, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertTrue(smtpSink.getMessages().stream().anyMatch(sent -> sent.recipients().contains(recipient)));
+    }
+
+    @Test
+    void retriesThenDeadLettersRejectedMessage() {
+        smtpSink.setRejecting(true);
+        String recipient = "outbox-" + UUID.randomUUID() + "@example.com";
+        UUID id = transactionTemplate.execute(status -> emailOutboxService.enqueue(recipient, "Subject", "Body"));
+
+        emailOutboxDispatcher.dispatch();
+        EmailOutboxMessage message = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxMessage.Status.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+
+        emailOutboxDispatcher.dispatch();
+        message = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxMessage.Status.DEAD, message.getStatus());
+        assertEquals(2, message.getAttempts());
+        assertTrue(message.getLastError() != null);
+    }
+
+    @Test
+    void slowServerDoesNotGetMessagesTwice() throws Exception {
+        // Drain what other tests left in the outbox, so only these messages go to the slow server.
+        emailOutboxDispatcher.dispatch();
+        String prefix = "slow-" + UUID.randomUUID();
+        List<String> recipients = IntStream.range(0, 8).mapToObj(i -> prefix + "-" + i + "@example.com").toList();
+        transactionTemplate.executeWithoutResult(status ->
+                recipients.forEach(recipient -> emailOutboxService.enqueue(recipient, "Subject", "Body")));
+        smtpSink.setDelay(300);
+
+        // Four messages per pooled connection take longer than the one second lease, so a
+        // second dispatcher polls while the first is still sending the batch.
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(emailOutboxDispatcher::dispatch);
+        Thread.sleep(1100);
+        int second = emailOutboxDispatcher.dispatch();
+
+        assertEquals(recipients.size(), first.get() + second);
+        for (String recipient : recipients) {
+            long received = smtpSink.getMessages().stream().filter(sent -> sent.recipients().contains(recipient)).count();
+            assertEquals(1, received, recipient);
+        }
+    }
+
+    private static SmtpSink startSink() {
+        try {
+            return new SmtpSink();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.support.DatabaseTestSupport;
+import com.mobylab.springbackend.support.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The menu endpoint is served from the snapshot: a conditional request with the current ETag
+ * gets a 304 without touching the database, and the ETag only changes with the menu.
+ */
+@AutoConfigureMockMvc
+@Import(StatementCounter.class)
+@WithMockUser
+class MenuSnapshotTests extends DatabaseTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final UUID dish = UUID.randomUUID();
+
+    @Test
+    void matchingEtagGetsNotModifiedWithoutStatements() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/v1/dishes"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(menuSnapshot.current().getJson()))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertEquals(menuSnapshot.current().getEtag(), etag);
+
+        StatementCounter.Counted<MvcResult> conditional = StatementCounter.count(() ->
+                mockMvc.perform(get("/api/v1/dishes").header("If-None-Match", etag))
+                        .andExpect(status().isNotModified())
+                        .andExpect(header().string("ETag", etag))
+                        .andReturn());
+
+        assertEquals(0, conditional.result().getResponse().getContentAsByteArray().length);
+        assertEquals(0, conditional.statements());
+    }
+
+    @Test
+    void versionChangesOnlyWithTheMenu() {
+        MenuSnapshot.Menu before = menuSnapshot.current();
+        menuSnapshot.reload();
+        assertEquals(before.getVersion(), menuSnapshot.current().getVersion());
+        assertEquals(before.getEtag(), menuSnapshot.current().getEtag());
+
+        createDish(dish, "Snapshot dish", BigDecimal.ONE);
+        menuSnapshot.reload();
+
+        assertEquals(before.getVersion() + 1, menuSnapshot.current().getVersion());
+        assertNotEquals(before.getEtag(), menuSnapshot.current().getEtag());
+    }
+}
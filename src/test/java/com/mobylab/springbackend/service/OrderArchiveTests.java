@@ -0,0 +1,93 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.repository.OrderPartitionJdbcRepository;
+import com.mobylab.springbackend.support.DatabaseTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Archiving a month moves its partition under order_archive and its lines to
+ * order_dish_archive, also when an earlier run stopped after the detach.
+ */
+@TestPropertySource(properties = "orders.archive.batch-size=2")
+class OrderArchiveTests extends DatabaseTestSupport {
+
+    private static final YearMonth MONTH = YearMonth.of(2001, 1);
+
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+    @Autowired
+    private OrderPartitionJdbcRepository orderPartitionRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID dish = UUID.randomUUID();
+
+    @BeforeEach
+    void createMonthWithOrders() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(orderPartitionRepository.tryLock());
+            orderPartitionRepository.create(MONTH);
+        });
+        createUser(user, "archive");
+        createDish(dish, "Archived dish", BigDecimal.ONE);
+        for (int i = 0; i < 5; i++) {
+            UUID order = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO project.\"order\" (id, order_date, status, user_id) VALUES (?, ?, 'DELIVERED', ?)",
+                    order, Timestamp.valueOf(MONTH.atDay(1 + i).atStartOfDay()), user);
+            jdbcTemplate.update("INSERT INTO project.order_dish (order_id, dish_id) VALUES (?, ?)", order, dish);
+        }
+    }
+
+    // Runs before the shared cleanup deletes the user and the dish.
+    @AfterEach
+    void dropMonth() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS project.order_p2001_01");
+        jdbcTemplate.update("DELETE FROM project.order_dish_archive WHERE dish_id = ?", dish);
+    }
+
+    @Test
+    void archiveMovesOrdersAndLines() {
+        orderPartitionService.archivePartition(MONTH, false);
+
+        assertArchived();
+    }
+
+    @Test
+    void interruptedArchiveIsFinished() {
+        jdbcTemplate.execute("ALTER TABLE project.\"order\" DETACH PARTITION project.order_p2001_01");
+        assertTrue(orderPartitionRepository.findDetachedMonths().contains(MONTH));
+
+        orderPartitionService.archivePartition(MONTH, true);
+
+        assertArchived();
+        assertFalse(orderPartitionRepository.findDetachedMonths().contains(MONTH));
+    }
+
+    private void assertArchived() {
+        assertFalse(orderPartitionRepository.findMonths().contains(MONTH));
+        assertEquals(0, count("SELECT count(*) FROM project.\"order\" WHERE user_id = ?", user));
+        assertEquals(5, count("SELECT count(*) FROM project.order_archive WHERE user_id = ?", user));
+        assertEquals(0, count("SELECT count(*) FROM project.order_dish WHERE dish_id = ?", dish));
+        assertEquals(5, count("SELECT count(*) FROM project.order_dish_archive WHERE dish_id = ?", dish));
+    }
+
+    private int count(String sql, UUID id) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, id);
+        return count == null ? 0 : count;
+    }
+}
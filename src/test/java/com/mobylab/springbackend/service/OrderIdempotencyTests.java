@@ -0,0 +1,109 @@
+package com.mobylab.springbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobylab.springbackend.exception.ConflictException;
+import com.mobylab.springbackend.repository.IdempotencyKeyJdbcRepository;
+import com.mobylab.springbackend.service.dto.OrderDto;
+import com.mobylab.springbackend.support.DatabaseTestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A repeated Idempotency-Key must return the order placed by the first request, from memory or,
+ * after a restart, from the database, and never place a second one. Reusing a key for a
+ * different order is a conflict.
+ */
+class OrderIdempotencyTests extends DatabaseTestSupport {
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private IdempotencyKeyJdbcRepository idempotencyKeyRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID dish = UUID.randomUUID();
+    private final UUID otherDish = UUID.randomUUID();
+    private final AtomicInteger placements = new AtomicInteger();
+    private String email;
+
+    @BeforeEach
+    void createUserAndDishes() {
+        email = createUser(user, "idempotency");
+        createDish(dish, "Idempotent dish", BigDecimal.ONE);
+        createDish(otherDish, "Other dish", BigDecimal.ONE);
+        menuSnapshot.reload();
+    }
+
+    @Test
+    void repeatedKeyReturnsTheFirstOrder() {
+        OrderIdempotencyService.Result first = orderIdempotencyService.placeOnce(email, "key-1", List.of(dish), null, placement(dish));
+        OrderIdempotencyService.Result second = orderIdempotencyService.placeOnce(email, "key-1", List.of(dish), null, placement(dish));
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(first.order().getId(), second.order().getId());
+        assertEquals(1, placements.get());
+        assertEquals(1, orderCount());
+    }
+
+    @Test
+    void repeatedKeyAfterRestartReturnsTheStoredOrder() {
+        OrderIdempotencyService.Result first = orderIdempotencyService.placeOnce(email, "key-2", List.of(dish), null, placement(dish));
+        // A fresh instance has nothing in memory, like after a restart or on another node.
+        OrderIdempotencyService restarted = new OrderIdempotencyService(idempotencyKeyRepository, transactionManager,
+                objectMapper, new SimpleMeterRegistry(), 86400000, 100, 10000);
+
+        OrderIdempotencyService.Result second = restarted.placeOnce(email, "key-2", List.of(dish), null, placement(dish));
+
+        assertTrue(second.replayed());
+        assertEquals(first.order().getId(), second.order().getId());
+        assertEquals(first.order().getDishIds(), second.order().getDishIds());
+        assertEquals(1, placements.get());
+        assertEquals(1, orderCount());
+    }
+
+    @Test
+    void sameKeyWithDifferentOrderIsRejected() {
+        orderIdempotencyService.placeOnce(email, "key-3", List.of(dish), null, placement(dish));
+
+        assertThrows(ConflictException.class,
+                () -> orderIdempotencyService.placeOnce(email, "key-3", List.of(otherDish), null, placement(otherDish)));
+        assertEquals(1, placements.get());
+        assertEquals(1, orderCount());
+    }
+
+    private Supplier<OrderDto> placement(UUID dishId) {
+        return () -> {
+            placements.incrementAndGet();
+            OrderDto order = new OrderDto();
+            order.setClientEmail(email);
+            order.setDishIds(List.of(dishId));
+            return orderService.placeOrder(order);
+        };
+    }
+
+    private int orderCount() {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM project.\"order\" WHERE user_id = ?", Integer.class, user);
+        return count == null ? 0 : count;
+    }
+}
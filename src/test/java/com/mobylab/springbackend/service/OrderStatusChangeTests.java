@@ -0,0 +1,91 @@
+package com.mobylab.springbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobylab.springbackend.service.dto.OrderStatusChangeDto;
+import com.mobylab.springbackend.support.DatabaseTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A bulk status change moves the orders that are in an allowed status and reports the others,
+ * split into conflicts with their current status and ids that do not exist.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = "ADMIN")
+class OrderStatusChangeTests extends DatabaseTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID placed = UUID.randomUUID();
+    private final UUID delivered = UUID.randomUUID();
+    private final UUID unknown = UUID.randomUUID();
+
+    @BeforeEach
+    void createOrders() {
+        createUser(user, "status");
+        createOrder(placed, "PLACED");
+        createOrder(delivered, "DELIVERED");
+    }
+
+    @Test
+    void batchSplitsUpdatedConflictsAndNotFound() throws Exception {
+        mockMvc.perform(post("/api/v1/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderStatusChangeDto()
+                                .setOrderIds(List.of(placed, delivered, unknown))
+                                .setTo("PREPARING"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PREPARING"))
+                .andExpect(jsonPath("$.updated.length()").value(1))
+                .andExpect(jsonPath("$.updated[0]").value(placed.toString()))
+                .andExpect(jsonPath("$.conflicts.length()").value(1))
+                .andExpect(jsonPath("$.conflicts[0].id").value(delivered.toString()))
+                .andExpect(jsonPath("$.conflicts[0].currentStatus").value("DELIVERED"))
+                .andExpect(jsonPath("$.notFound.length()").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value(unknown.toString()));
+
+        assertEquals("PREPARING", statusOf(placed));
+        assertEquals("DELIVERED", statusOf(delivered));
+    }
+
+    @Test
+    void illegalTransitionIsRejected() throws Exception {
+        mockMvc.perform(post("/api/v1/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderStatusChangeDto()
+                                .setOrderIds(List.of(delivered))
+                                .setFrom("DELIVERED")
+                                .setTo("PLACED"))))
+                .andExpect(status().isBadRequest());
+
+        assertEquals("DELIVERED", statusOf(delivered));
+    }
+
+    private void createOrder(UUID id, String status) {
+        jdbcTemplate.update("INSERT INTO project.\"order\" (id, order_date, status, user_id) VALUES (?, ?, ?, ?)",
+                id, Timestamp.valueOf(LocalDateTime.now()), status, user);
+    }
+
+    private String statusOf(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM project.\"order\" WHERE id = ?", String.class, id);
+    }
+}
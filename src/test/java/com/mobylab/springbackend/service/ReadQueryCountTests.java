@@ -0,0 +1,118 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.service.dto.OrderDto;
+import com.mobylab.springbackend.service.dto.OrderPageDto;
+import com.mobylab.springbackend.service.dto.ReviewDto;
+import com.mobylab.springbackend.support.DatabaseTestSupport;
+import com.mobylab.springbackend.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The order and review list endpoints must cost the same number of statements whether they
+ * return one row or many.
+ */
+@Import(StatementCounter.class)
+class ReadQueryCountTests extends DatabaseTestSupport {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ReviewService reviewService;
+
+    private final List<UUID> dishes = new ArrayList<>();
+
+    @BeforeEach
+    void createDishes() {
+        for (int i = 0; i < 6; i++) {
+            UUID id = UUID.randomUUID();
+            createDish(id, "Dish " + i, BigDecimal.ONE);
+            dishes.add(id);
+        }
+    }
+
+    @Test
+    void ordersByUserEmailUseOneStatement() throws Exception {
+        String one = createUserWithOrders(1);
+        String many = createUserWithOrders(6);
+
+        StatementCounter.Counted<List<OrderDto>> single = StatementCounter.count(() -> orderService.getOrdersByUserEmail(one));
+        StatementCounter.Counted<List<OrderDto>> several = StatementCounter.count(() -> orderService.getOrdersByUserEmail(many));
+
+        assertEquals(1, single.result().size());
+        assertEquals(6, several.result().size());
+        assertEquals(dishes.size(), several.result().get(0).getDishIds().size());
+        assertEquals(1, single.statements());
+        assertEquals(1, several.statements());
+    }
+
+    @Test
+    void orderSearchPageUsesOneStatement() throws Exception {
+        String email = createUserWithOrders(6);
+
+        StatementCounter.Counted<OrderPageDto> first = StatementCounter.count(() -> orderService.searchOrders(null, null, null, email, null, 4));
+        StatementCounter.Counted<OrderPageDto> second = StatementCounter.count(
+                () -> orderService.searchOrders(null, null, null, email, first.result().getNextCursor(), 4));
+
+        assertEquals(4, first.result().getItems().size());
+        assertEquals(2, second.result().getItems().size());
+        assertNull(second.result().getNextCursor());
+        assertEquals(1, first.statements());
+        assertEquals(1, second.statements());
+    }
+
+    @Test
+    void reviewsUseFixedStatementCount() throws Exception {
+        String one = createUserWithReviews(1);
+        String many = createUserWithReviews(6);
+
+        StatementCounter.Counted<List<ReviewDto>> single = StatementCounter.count(() -> reviewService.getReviewsByUserEmail(one));
+        StatementCounter.Counted<List<ReviewDto>> several = StatementCounter.count(() -> reviewService.getReviewsByUserEmail(many));
+        StatementCounter.Counted<List<ReviewDto>> byDish = StatementCounter.count(() -> reviewService.getReviewsByDishId(dishes.get(0)));
+
+        assertEquals(1, single.result().size());
+        assertEquals(6, several.result().size());
+        assertEquals(many, several.result().get(0).getReviewerEmail());
+        assertEquals(2, byDish.result().size());
+        assertEquals(1, single.statements());
+        assertEquals(1, several.statements());
+        // existence check of the dish, then the reviews
+        assertEquals(2, byDish.statements());
+    }
+
+    private String createUserWithOrders(int orders) {
+        UUID user = UUID.randomUUID();
+        String email = createUser(user, "reads");
+        for (int i = 0; i < orders; i++) {
+            UUID order = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO project.\"order\" (id, order_date, status, user_id) VALUES (?, ?, 'PLACED', ?)",
+                    order, Timestamp.valueOf(LocalDateTime.now()), user);
+            for (UUID dish : dishes) {
+                jdbcTemplate.update("INSERT INTO project.order_dish (order_id, dish_id) VALUES (?, ?)", order, dish);
+            }
+        }
+        return email;
+    }
+
+    private String createUserWithReviews(int reviews) {
+        UUID user = UUID.randomUUID();
+        String email = createUser(user, "reads");
+        for (int i = 0; i < reviews; i++) {
+            jdbcTemplate.update("INSERT INTO project.review (id, rating, review_date, user_id, dish_id) VALUES (?, 5, ?, ?, ?)",
+                    UUID.randomUUID(), Timestamp.valueOf(LocalDateTime.now()), user, dishes.get(i));
+        }
+        return email;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mobylab.springbackend.service;
+
+import com.mobylab.springbackend.config.security.AuthenticatedUser;
+import com.mobylab.springbackend.service.dto.OrderDto;
+import com.mobylab.springbackend.support.DatabaseTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The rollup must add and take back the price an order was placed at, so it stays equal to a
+ * rebuild from the order history when menu prices change in between.
+ */
+class SalesRollupTests extends DatabaseTestSupport {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private SalesReportService salesReportService;
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID dish = UUID.randomUUID();
+    private String email;
+
+    @BeforeEach
+    void createUserAndDish() {
+        email = createUser(user, "sales");
+        createDish(dish, "Rollup dish", new BigDecimal("10.00"));
+        menuSnapshot.reload();
+    }
+
+    @Test
+    void cancellationAfterPriceChangeTakesBackThePlacedPrice() {
+        OrderDto request = new OrderDto();
+        request.setClientEmail(email);
+        request.setDishIds(List.of(dish));
+        OrderDto cancelled = orderService.placeOrder(request);
+        orderService.placeOrder(new AuthenticatedUser(user, email, "sales", "x", List.of()), List.of(dish), null);
+        assertRollup(2, "20.00");
+
+        jdbcTemplate.update("UPDATE project.dish SET price = ? WHERE id = ?", new BigDecimal("15.00"), dish);
+        orderService.changeStatus(List.of(cancelled.getId()), null, "CANCELLED");
+        assertRollup(1, "10.00");
+
+        LocalDate today = LocalDate.now();
+        salesReportService.rebuild(today, today);
+        assertRollup(1, "10.00");
+    }
+
+    private void assertRollup(long orders, String revenue) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT order_count, revenue FROM project.sales_daily_dish WHERE day = ? AND dish_id = ?",
+                Date.valueOf(LocalDate.now()), dish);
+        assertEquals(orders, ((Number) row.get("order_count")).longValue());
+        assertEquals(new BigDecimal(revenue), row.get("revenue"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.mobylab.springbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlidingWindowCounterTests {
+
+    @Test
+    void sumsOnlyTheMinutesInsideTheWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        long now = 1_000_000;
+        counter.increment(now - 60);
+        counter.increment(now - 59);
+        counter.increment(now - 14);
+        counter.increment(now - 14);
+        counter.increment(now);
+
+        assertEquals(1, counter.sum(now, 1));
+        assertEquals(3, counter.sum(now, 15));
+        assertEquals(4, counter.sum(now, 60));
+        assertEquals(4, counter.sum(now, 600));
+    }
+
+    @Test
+    void reusedBucketForgetsTheOlderMinute() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        long now = 1_000_000;
+        counter.increment(now - 60);
+        counter.increment(now - 60);
+        counter.increment(now);
+
+        assertEquals(1, counter.sum(now, 60));
+        // A writer still on the replaced minute does not leak into the current one.
+        counter.increment(now - 60);
+        assertEquals(1, counter.sum(now, 60));
+    }
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        long now = 1_000_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.increment(now);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, counter.sum(now, 15));
+    }
+}
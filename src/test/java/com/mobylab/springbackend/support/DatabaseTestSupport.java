@@ -0,0 +1,67 @@
+package com.mobylab.springbackend.support;
+
+import com.mobylab.springbackend.service.MenuSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Base for tests that write to the shared database. Users and dishes created through it are
+ * deleted after each test, together with the users' orders and idempotency keys. The outbox
+ * dispatcher does not poll, so queued emails stay in the database.
+ */
+@SpringBootTest(properties = {"mail.outbox.poll-interval=3600000"})
+public abstract class DatabaseTestSupport {
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+    @Autowired
+    protected MenuSnapshot menuSnapshot;
+
+    private final List<UUID> users = new ArrayList<>();
+    private final List<UUID> dishes = new ArrayList<>();
+
+    /**
+     * @return the user's email, {@code name-id@example.com}.
+     */
+    protected String createUser(UUID id, String name) {
+        String email = name + "-" + id + "@example.com";
+        jdbcTemplate.update("INSERT INTO project.users (id, username, email, password, security_stamp) VALUES (?, ?, ?, 'x', ?)",
+                id, name, email, UUID.randomUUID());
+        users.add(id);
+        return email;
+    }
+
+    /**
+     * Orders only see the dish once {@link MenuSnapshot#reload()} has run.
+     */
+    protected void createDish(UUID id, String name, BigDecimal price) {
+        jdbcTemplate.update("INSERT INTO project.dish (id, name, price) VALUES (?, ?, ?)", id, name, price);
+        dishes.add(id);
+    }
+
+    @AfterEach
+    void deleteCreatedRows() {
+        for (UUID user : users) {
+            jdbcTemplate.update("DELETE FROM project.order_idempotency_key WHERE owner = (SELECT email FROM project.users WHERE id = ?)", user);
+            // Deleting the orders deletes their order_dish rows.
+            jdbcTemplate.update("DELETE FROM project.\"order\" WHERE user_id = ?", user);
+            jdbcTemplate.update("DELETE FROM project.users WHERE id = ?", user);
+        }
+        // Cascades to the rollup rows.
+        for (UUID dish : dishes) {
+            jdbcTemplate.update("DELETE FROM project.dish WHERE id = ?", dish);
+        }
+        if (!dishes.isEmpty()) {
+            menuSnapshot.reload();
+        }
+        users.clear();
+        dishes.clear();
+    }
+}